@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+    static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@shareit.ru")
+                .build();
+    }
+
+    static Item item(long id, User owner) {
+        return Item.builder()
+                .id(id)
+                .name("Вещь " + id)
+                .description("Описание вещи " + id + " для аренды на выходные")
+                .owner(owner)
+                .available(id % 5 != 0)
+                .build();
+    }
+
+    static List<Item> items(int count) {
+        User owner = user(1);
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(item(id, owner));
+        }
+
+        return items;
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(NOW.plusDays(id))
+                .end(NOW.plusDays(id + 2))
+                .item(item)
+                .booker(booker)
+                .status(Status.values()[(int) (id % Status.values().length)])
+                .build();
+    }
+
+    static List<Booking> bookings(int count) {
+        List<Item> items = items(Math.max(1, count / 10));
+        User booker = user(2);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            bookings.add(booking(id, items.get((int) (id % items.size())), booker));
+        }
+
+        return bookings;
+    }
+
+    static List<ItemDtoWithBooking> itemsWithBooking(int count, int commentsPerItem) {
+        List<ItemDtoWithBooking> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            List<CommentDto> comments = new ArrayList<>(commentsPerItem);
+            for (long commentId = 1; commentId <= commentsPerItem; commentId++) {
+                comments.add(CommentDto.builder()
+                        .id(id * commentsPerItem + commentId)
+                        .text("Отличная вещь, всё работает")
+                        .authorName("Пользователь " + commentId)
+                        .created(NOW.minusDays(commentId))
+                        .build());
+            }
+            items.add(ItemDtoWithBooking.builder()
+                    .id(id)
+                    .name("Вещь " + id)
+                    .description("Описание вещи " + id + " для аренды на выходные")
+                    .available(true)
+                    .lastBooking(BookingItemDto.builder().id(id * 2).bookerId(2L).build())
+                    .nextBooking(BookingItemDto.builder().id(id * 2 + 1).bookerId(3L).build())
+                    .comments(comments)
+                    .build());
+        }
+
+        return items;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+
+    private List<BookingDto> bookings;
+
+    private List<ItemDtoWithBooking> items;
+
+    @Setup
+    public void setUp() {
+        // Тот же набор модулей и настроек, что и у ObjectMapper из автоконфигурации Spring Boot.
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        bookings = Fixtures.bookings(size).stream()
+                .map(BookingMapper::bookingToDto)
+                .collect(Collectors.toList());
+        items = Fixtures.itemsWithBooking(size, 3);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeItemsWithBooking() throws JsonProcessingException {
+        return writer.writeValueAsBytes(items);
+    }
+}
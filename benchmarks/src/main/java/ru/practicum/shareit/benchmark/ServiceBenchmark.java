@@ -0,0 +1,178 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int USERS = 200;
+
+    private static final int ITEMS_PER_USER = 10;
+
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    private static final int COMMENTS_PER_ITEM = 2;
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10", "100"})
+    private int ownerItems;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    private BookingService bookingService;
+
+    private BookingRepository bookingRepository;
+
+    private Long ownerId;
+
+    private List<Long> ownerItemIds;
+
+    private Pageable itemsPage;
+
+    private Pageable bookingsPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        seed();
+        itemsPage = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        bookingsPage = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "start"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBooking> itemsGetAllByOwner() {
+        return itemService.getAllByOwner(ownerId, itemsPage);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsGetAllByOwnerId() {
+        return bookingService.getAllByOwnerId(ownerId, "ALL", null, bookingsPage);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsGetWaitingByOwnerId() {
+        return bookingService.getAllByOwnerId(ownerId, "WAITING", null, bookingsPage);
+    }
+
+    @Benchmark
+    public List<BookingShortView> bookingsFindLastAndNextByItemIds() {
+        return bookingRepository.findLastAndNextByItemIds(ownerItemIds, LocalDateTime.now());
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        TransactionTemplate transaction = context.getBean(TransactionTemplate.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> users = transaction.execute(status -> {
+            List<User> batch = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                batch.add(User.builder().name("Пользователь " + i).email("user" + i + "@shareit.ru").build());
+            }
+            return userRepository.saveAll(batch);
+        });
+        User owner = users.get(0);
+        ownerId = owner.getId();
+
+        for (int u = 0; u < USERS; u++) {
+            User itemOwner = users.get(u);
+            int itemCount = u == 0 ? ownerItems : ITEMS_PER_USER;
+            transaction.executeWithoutResult(status -> {
+                List<Item> items = new ArrayList<>(itemCount);
+                for (int i = 0; i < itemCount; i++) {
+                    items.add(Item.builder()
+                            .name("Вещь " + i)
+                            .description("Описание вещи " + i + " для аренды на выходные")
+                            .owner(itemOwner)
+                            .available(true)
+                            .build());
+                }
+                itemRepository.saveAll(items);
+                List<Booking> bookings = new ArrayList<>(itemCount * BOOKINGS_PER_ITEM);
+                List<Comment> comments = new ArrayList<>(itemCount * COMMENTS_PER_ITEM);
+                for (Item item : items) {
+                    for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                        LocalDateTime start = now.plusDays((long) (b - BOOKINGS_PER_ITEM / 2) * 3);
+                        bookings.add(Booking.builder()
+                                .start(start)
+                                .end(start.plusDays(2))
+                                .item(item)
+                                .booker(users.get((item.getId().intValue() + b + 1) % USERS))
+                                .status(Status.values()[b % Status.values().length])
+                                .build());
+                    }
+                    for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                        comments.add(Comment.builder()
+                                .text("Отличная вещь, всё работает")
+                                .item(item)
+                                .author(users.get((item.getId().intValue() + c + 1) % USERS))
+                                .created(now.minusDays(c + 1))
+                                .build());
+                    }
+                }
+                bookingRepository.saveAll(bookings);
+                commentRepository.saveAll(comments);
+            });
+        }
+
+        ownerItemIds = itemRepository.findByOwnerId(ownerId, Pageable.unpaged()).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
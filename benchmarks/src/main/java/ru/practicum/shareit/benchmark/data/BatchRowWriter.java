@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+class BatchRowWriter implements RowWriter {
+    private final Connection connection;
+
+    private final PreparedStatement statement;
+
+    private final int batchSize;
+
+    private long count;
+
+    BatchRowWriter(Connection connection, String table, List<String> columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.statement = connection.prepareStatement(String.format("INSERT INTO %s (%s) VALUES (%s)",
+                table, String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?"))));
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            statement.setObject(i + 1,
+                    value instanceof LocalDateTime ? Timestamp.valueOf((LocalDateTime) value) : value);
+        }
+        statement.addBatch();
+        if (++count % batchSize == 0) {
+            flush();
+        }
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+}
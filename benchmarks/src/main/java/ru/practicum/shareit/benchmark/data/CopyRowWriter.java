@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark.data;
+
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+class CopyRowWriter implements RowWriter {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Connection connection;
+
+    private final CopyManager copyManager;
+
+    private final String sql;
+
+    private final int batchSize;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private long count;
+
+    CopyRowWriter(Connection connection, String table, List<String> columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.copyManager = new CopyManager(connection.unwrap(BaseConnection.class));
+        this.sql = String.format("COPY %s (%s) FROM STDIN WITH (FORMAT csv)", table, String.join(", ", columns));
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(values[i]);
+        }
+        buffer.append('\n');
+        if (++count % batchSize == 0) {
+            flush();
+        }
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof LocalDateTime) {
+            buffer.append(TIMESTAMP_FORMAT.format((LocalDateTime) value));
+        } else if (value instanceof String) {
+            buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        try {
+            copyManager.copyIn(sql, new StringReader(buffer.toString()));
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+        connection.commit();
+        buffer.setLength(0);
+    }
+}
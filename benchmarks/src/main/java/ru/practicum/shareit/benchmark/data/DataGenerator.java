@@ -0,0 +1,181 @@
+package ru.practicum.shareit.benchmark.data;
+
+import ru.practicum.shareit.benchmark.Arguments;
+import ru.practicum.shareit.benchmark.ZipfDistribution;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет базу синтетическими данными с перекосом, похожим на боевой: вещи сосредоточены у небольшого числа
+ * владельцев, бронирования распределены по вещам по закону Ципфа.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.data.DataGenerator \
+ *     --url=jdbc:postgresql://localhost:6541/shareit --users=100000 --items=500000 --bookings=5000000
+ * </pre>
+ */
+public class DataGenerator {
+    private static final String[] ITEM_NAMES = {"Дрель", "Перфоратор", "Палатка", "Велосипед", "Лестница",
+            "Проектор", "Байдарка", "Шуруповёрт", "Газонокосилка", "Спальник"};
+
+    private final Connection connection;
+
+    private final boolean copy;
+
+    private final int batchSize;
+
+    private final Random random;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    DataGenerator(Connection connection, boolean copy, int batchSize, long seed) {
+        this.connection = connection;
+        this.copy = copy;
+        this.batchSize = batchSize;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Arguments arguments = new Arguments(args);
+        String url = arguments.getString("url", "jdbc:postgresql://localhost:5432/shareit");
+        try (Connection connection = DriverManager.getConnection(url,
+                arguments.getString("username", "shareit"),
+                arguments.getString("password", "streamfindfirst"))) {
+            connection.setAutoCommit(false);
+            boolean copy = url.startsWith("jdbc:postgresql:") && !"batch".equals(arguments.getString("mode", "copy"));
+            DataGenerator generator = new DataGenerator(connection, copy,
+                    arguments.getInt("batch", 5000),
+                    arguments.getLong("seed", 42));
+            generator.generate(
+                    arguments.getInt("users", 10_000),
+                    arguments.getInt("requests", 5_000),
+                    arguments.getInt("items", 50_000),
+                    arguments.getInt("bookings", 500_000),
+                    arguments.getDouble("owner-skew", 1.2),
+                    arguments.getDouble("booking-skew", 1.0),
+                    arguments.getDouble("request-share", 0.1),
+                    arguments.getDouble("comment-share", 0.2));
+        }
+    }
+
+    void generate(int users, int requests, int items, int bookings, double ownerSkew, double bookingSkew,
+                  double requestShare, double commentShare) throws SQLException {
+        long userBase = nextId("users");
+        long requestBase = nextId("requests");
+        long itemBase = nextId("items");
+        long bookingBase = nextId("bookings");
+        long commentBase = nextId("comments");
+
+        long start = System.nanoTime();
+        try (RowWriter writer = writer("users", List.of("id", "name", "email"))) {
+            for (int i = 0; i < users; i++) {
+                long id = userBase + i;
+                writer.write(id, "Пользователь " + id, "user" + id + "@shareit.ru");
+            }
+            report("users", writer.count(), start);
+        }
+
+        start = System.nanoTime();
+        try (RowWriter writer = writer("requests", List.of("id", "description", "requester_id", "created"))) {
+            for (int i = 0; i < requests; i++) {
+                writer.write(requestBase + i, "Нужна " + ITEM_NAMES[random.nextInt(ITEM_NAMES.length)],
+                        userBase + random.nextInt(users), now.minusMinutes(random.nextInt(365 * 24 * 60)));
+            }
+            report("requests", writer.count(), start);
+        }
+
+        long[] owners = new long[items];
+        ZipfDistribution ownerDistribution = new ZipfDistribution(users, ownerSkew);
+        start = System.nanoTime();
+        try (RowWriter writer = writer("items",
+                List.of("id", "name", "description", "owner_id", "available", "request_id"))) {
+            for (int i = 0; i < items; i++) {
+                long id = itemBase + i;
+                owners[i] = userBase + ownerDistribution.sample(random);
+                String name = ITEM_NAMES[random.nextInt(ITEM_NAMES.length)];
+                Long requestId = requests > 0 && random.nextDouble() < requestShare
+                        ? requestBase + random.nextInt(requests)
+                        : null;
+                writer.write(id, name + " " + id, name + " в хорошем состоянии, выдаётся с документами",
+                        owners[i], random.nextInt(10) != 0, requestId);
+            }
+            report("items", writer.count(), start);
+        }
+
+        ZipfDistribution itemDistribution = new ZipfDistribution(items, bookingSkew);
+        long commentId = commentBase;
+        start = System.nanoTime();
+        try (RowWriter bookingWriter = writer("bookings",
+                List.of("id", "start_date", "end_date", "item_id", "booker_id", "status"));
+             RowWriter commentWriter = writer("comments", List.of("id", "text", "item_id", "author_id", "created"))) {
+            for (int i = 0; i < bookings; i++) {
+                int item = itemDistribution.sample(random);
+                long booker = userBase + random.nextInt(users);
+                if (booker == owners[item]) {
+                    booker = userBase + (booker - userBase + 1) % users;
+                }
+                LocalDateTime bookingStart = now.plusHours(random.nextInt(455 * 24) - 365 * 24);
+                LocalDateTime bookingEnd = bookingStart.plusHours(1 + random.nextInt(14 * 24));
+                String status = status(bookingStart);
+                bookingWriter.write(bookingBase + i, bookingStart, bookingEnd, itemBase + item, booker, status);
+                if ("APPROVED".equals(status) && bookingEnd.isBefore(now) && random.nextDouble() < commentShare) {
+                    commentWriter.write(commentId++, "Всё понравилось, вещь как в описании", itemBase + item,
+                            booker, bookingEnd.plusHours(1 + random.nextInt(72)));
+                }
+            }
+            report("bookings", bookingWriter.count(), start);
+            report("comments", commentWriter.count(), start);
+        }
+
+        restartSequence("users_seq", userBase + users);
+        restartSequence("requests_seq", requestBase + requests);
+        restartSequence("items_seq", itemBase + items);
+        restartSequence("bookings_seq", bookingBase + bookings);
+        restartSequence("comments_seq", commentId);
+        connection.commit();
+    }
+
+    private String status(LocalDateTime start) {
+        int roll = random.nextInt(10);
+        if (start.isAfter(now)) {
+            return roll < 3 ? "WAITING" : roll < 9 ? "APPROVED" : "REJECTED";
+        }
+
+        return roll < 8 ? "APPROVED" : roll < 9 ? "REJECTED" : "CANCELED";
+    }
+
+    private RowWriter writer(String table, List<String> columns) throws SQLException {
+        return copy
+                ? new CopyRowWriter(connection, table, columns, batchSize)
+                : new BatchRowWriter(connection, table, columns, batchSize);
+    }
+
+    private long nextId(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            resultSet.next();
+
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void restartSequence(String sequence, long nextId) throws SQLException {
+        // Сущности используют pooled-оптимизатор с шагом 50: следующий диапазон id заканчивается на nextval.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("ALTER SEQUENCE %s RESTART WITH %d", sequence, nextId + 50));
+        }
+    }
+
+    private static void report(String table, long rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%-10s %,12d строк за %6.1f с (%,.0f строк/с)%n", table, rows, seconds, rows / seconds);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.benchmark.data;
+
+import java.sql.SQLException;
+
+interface RowWriter extends AutoCloseable {
+    void write(Object... values) throws SQLException;
+
+    long count();
+
+    @Override
+    void close() throws SQLException;
+}
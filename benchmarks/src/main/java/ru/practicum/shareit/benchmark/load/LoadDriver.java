@@ -0,0 +1,200 @@
+package ru.practicum.shareit.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import ru.practicum.shareit.benchmark.Arguments;
+import ru.practicum.shareit.benchmark.ZipfDistribution;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замкнутый цикл нагрузки на gateway: каждый поток отправляет следующий запрос только после ответа на предыдущий.
+ * Задержки по каждой операции собираются в HdrHistogram, ошибки (статус 4xx/5xx и исключения) считаются отдельно.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.load.LoadDriver \
+ *     --url=http://localhost:8080 --threads=32 --duration=2m --users=100000 \
+ *     --mix=items=40,bookings=25,bookings-owner=25,requests-all=10 --hgrm=target/load
+ * </pre>
+ */
+public class LoadDriver {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+
+    private final Duration timeout;
+
+    private final int pageSize;
+
+    private final long firstUserId;
+
+    private final ZipfDistribution userDistribution;
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    private volatile boolean running = true;
+
+    LoadDriver(String baseUrl, Duration timeout, int pageSize, long firstUserId, ZipfDistribution userDistribution,
+               Map<Operation, Integer> mix) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.pageSize = pageSize;
+        this.firstUserId = firstUserId;
+        this.userDistribution = userDistribution;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+            recorders.put(operations[i], new Recorder(3));
+            errors.put(operations[i], new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Arguments arguments = new Arguments(args);
+        LoadDriver driver = new LoadDriver(
+                arguments.getString("url", "http://localhost:8080"),
+                arguments.getDuration("timeout", Duration.ofSeconds(10)),
+                arguments.getInt("size", 10),
+                arguments.getLong("first-user", 1),
+                new ZipfDistribution(arguments.getInt("users", 10_000), arguments.getDouble("user-skew", 1.0)),
+                parseMix(arguments.getString("mix", "items=40,bookings=25,bookings-owner=25,requests-all=10")));
+        Duration duration = arguments.getDuration("duration", Duration.ofMinutes(1));
+        Map<Operation, Histogram> histograms = driver.run(arguments.getInt("threads", 16),
+                arguments.getDuration("warmup", Duration.ofSeconds(10)), duration);
+        driver.report(histograms, duration, System.out);
+        String hgrm = arguments.getString("hgrm", null);
+        if (hgrm != null) {
+            writePercentiles(histograms, Path.of(hgrm));
+        }
+    }
+
+    Map<Operation, Histogram> run(int threads, Duration warmup, Duration duration) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(this::loop);
+        }
+        Thread.sleep(warmup.toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        Thread.sleep(duration.toMillis());
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(timeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+
+        return histograms;
+    }
+
+    void report(Map<Operation, Histogram> histograms, Duration duration, PrintStream out) {
+        double seconds = duration.toMillis() / 1000.0;
+        out.printf("%-16s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+                "операция", "запросов", "ошибок", "запр/с", "mean, мс", "p50, мс", "p90, мс", "p99, мс",
+                "p99.9, мс", "max, мс");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            long operationErrors = errors.get(entry.getKey()).get();
+            print(out, entry.getKey().getKey(), entry.getValue(), operationErrors, seconds);
+            total.add(entry.getValue());
+            totalErrors += operationErrors;
+        }
+        print(out, "всего", total, totalErrors, seconds);
+    }
+
+    private void loop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Operation operation = nextOperation(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + operation.path(pageSize)))
+                    .timeout(timeout)
+                    .header(USER_ID, String.valueOf(firstUserId + userDistribution.sample(random)))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.get(operation).incrementAndGet();
+                } else {
+                    recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+            } catch (IOException e) {
+                errors.get(operation).incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Operation nextOperation(int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    private static void print(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                histogram.getMean() / 1000, histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            weights.put(Operation.byKey(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+
+        return weights;
+    }
+
+    private static void writePercentiles(Map<Operation, Histogram> histograms, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Path file = directory.resolve(entry.getKey().getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(file.toFile(), StandardCharsets.UTF_8)) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.printf("Распределения задержек (мс) записаны в %s%n", directory.toAbsolutePath());
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.util.Arrays;
+
+enum Operation {
+    ITEMS("items", "/items?from=0&size=%d"),
+    BOOKINGS("bookings", "/bookings?state=ALL&from=0&size=%d"),
+    BOOKINGS_OWNER("bookings-owner", "/bookings/owner?state=ALL&from=0&size=%d"),
+    REQUESTS_ALL("requests-all", "/requests/all?from=0&size=%d");
+
+    private final String key;
+
+    private final String path;
+
+    Operation(String key, String path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String path(int size) {
+        return String.format(path, size);
+    }
+
+    static Operation byKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Неизвестная операция: %s", key)));
+    }
+}
@@ -2,51 +2,56 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<byte[]>> getBookings(Long userId, Set<BookingState> states, Long itemId, Integer from,
+                                                    Integer size, String cursor, boolean total) {
+        return getByState("", userId, states, itemId, from, size, cursor, total);
     }
 
 
-    public ResponseEntity<Object> bookItem(Long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> bookItem(Long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
+    public void bookItems(Long userId, InputStream body, HttpServletResponse response) throws IOException {
+        postStream("/bulk", userId, body, response);
+    }
+
+    public Flux<ServerSentEvent<String>> stream(Long userId) {
+        return getEvents("/stream", userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approve(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<byte[]>> approve(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
@@ -54,13 +59,31 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getByOwnerId(Long ownerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
+    public Mono<ResponseEntity<byte[]>> getByOwnerId(Long ownerId, Set<BookingState> states, Long itemId,
+                                                     Integer from, Integer size, String cursor, boolean total) {
+        return getByState("/owner", ownerId, states, itemId, from, size, cursor, total);
+    }
+
+    private Mono<ResponseEntity<byte[]>> getByState(String path, Long userId, Set<BookingState> states, Long itemId,
+                                                    Integer from, Integer size, String cursor, boolean total) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", states.stream().map(BookingState::name).collect(Collectors.joining(",")),
+                "size", size,
+                "total", total
+        ));
+        StringBuilder query = new StringBuilder(path).append("?state={state}&size={size}&total={total}");
+        if (cursor == null) {
+            parameters.put("from", from);
+            query.append("&from={from}");
+        } else {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        }
+        if (itemId != null) {
+            parameters.put("itemId", itemId);
+            query.append("&itemId={itemId}");
+        }
 
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        return get(query.toString(), userId, parameters);
     }
 }
\ No newline at end of file
@@ -3,16 +3,24 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -25,37 +33,58 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(USER_ID) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        BookingState state = BookingState.from(stateParam)
+    public Mono<ResponseEntity<byte[]>> getBookings(@RequestHeader(USER_ID) long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) Long itemId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "false") boolean total) {
+        Set<BookingState> states = BookingState.fromAll(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get booking with state {}, userId={}, itemId={}, from={}, size={}, cursor={}", stateParam, userId,
+                itemId, from, size, cursor);
 
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, states, itemId, from, size, cursor, total);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(USER_ID) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> bookItem(@RequestHeader(USER_ID) long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
 
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/bulk")
+    public void bookItems(@RequestHeader(USER_ID) long userId,
+                          InputStream body,
+                          HttpServletResponse response) throws IOException {
+        log.info("Creating bookings in bulk, userId={}", userId);
+
+        bookingClient.bookItems(userId, body, response);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public Flux<ServerSentEvent<String>> stream(@RequestHeader(USER_ID) long userId) {
+        log.info("Subscribe to booking changes, userId={}", userId);
+
+        return bookingClient.stream(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getBooking(@RequestHeader(USER_ID) long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
 
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader(USER_ID) long userId,
-                                          @PathVariable long bookingId,
-                                          @RequestParam boolean approved) {
+    public Mono<ResponseEntity<byte[]>> approve(@RequestHeader(USER_ID) long userId,
+                                                @PathVariable long bookingId,
+                                                @RequestParam boolean approved) {
         log.info("Вызван метод approve() в BookingController пользователем с id {} для бронирования с id {}.",
                 userId, bookingId);
 
@@ -63,15 +92,18 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getByOwnerId(@RequestHeader(USER_ID) long ownerId,
-                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        BookingState state = BookingState.from(stateParam)
+    public Mono<ResponseEntity<byte[]>> getByOwnerId(@RequestHeader(USER_ID) long ownerId,
+                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(required = false) Long itemId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "false") boolean total) {
+        Set<BookingState> states = BookingState.fromAll(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Вызван метод getByOwnerId() в BookingController для пользователя с id {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", ownerId, from, size);
 
-        return bookingClient.getByOwnerId(ownerId, state, from, size);
+        return bookingClient.getByOwnerId(ownerId, states, itemId, from, size, cursor, total);
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.dto;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 public enum BookingState {
     // Все
@@ -16,6 +19,9 @@ public enum BookingState {
     // Ожидающие подтверждения
     WAITING;
 
+    // Состояния можно комбинировать: "future,waiting", "FUTURE+WAITING" или "future waiting".
+    private static final Pattern SEPARATOR = Pattern.compile("[,+\\s]+");
+
     public static Optional<BookingState> from(String stringState) {
         for (BookingState state : values()) {
             if (state.name().equalsIgnoreCase(stringState)) {
@@ -24,4 +30,16 @@ public enum BookingState {
         }
         return Optional.empty();
     }
+
+    public static Optional<Set<BookingState>> fromAll(String stringStates) {
+        Set<BookingState> states = EnumSet.noneOf(BookingState.class);
+        for (String stringState : SEPARATOR.split(stringStates.trim())) {
+            Optional<BookingState> state = from(stringState);
+            if (state.isEmpty()) {
+                return Optional.empty();
+            }
+            states.add(state.get());
+        }
+        return Optional.of(states);
+    }
 }
\ No newline at end of file
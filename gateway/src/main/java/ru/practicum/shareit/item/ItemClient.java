@@ -2,15 +2,19 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,51 +22,71 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+    public Mono<ResponseEntity<byte[]>> getAll(long userId, int from, int size, boolean total) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "size", size,
+                "total", total
         );
 
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("?from={from}&size={size}&total={total}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
+    public Mono<ResponseEntity<byte[]>> getById(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> getAvailability(long userId, long itemId, LocalDateTime from,
+                                                        LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> create(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(ItemDto itemDto, long userId, long itemId) {
+    public void createAll(long userId, InputStream body, HttpServletResponse response) throws IOException {
+        postStream("/bulk", userId, body, response);
+    }
+
+    public Mono<ResponseEntity<byte[]>> update(ItemDto itemDto, long userId, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> delete(long itemId) {
+    public Mono<ResponseEntity<byte[]>> delete(long itemId) {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> search(String text, long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<byte[]>> search(String text, long userId, int from, int size, LocalDateTime start,
+                                               LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
+        ));
+        StringBuilder query = new StringBuilder("/search?text={text}&from={from}&size={size}");
+        if (start != null) {
+            parameters.put("start", start);
+            query.append("&start={start}");
+        }
+        if (end != null) {
+            parameters.put("end", end);
+            query.append("&end={end}");
+        }
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get(query.toString(), userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto comment) {
+    public Mono<ResponseEntity<byte[]>> createComment(long userId, long itemId, CommentDto comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
 }
\ No newline at end of file
@@ -2,17 +2,23 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Create;
 import ru.practicum.shareit.common.Update;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping("/items")
@@ -25,65 +31,94 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(USER_ID) long userId,
-                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                         @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<byte[]>> getAll(@RequestHeader(USER_ID) long userId,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                               @Positive @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(defaultValue = "false") boolean total) {
         log.info("Вызван метод getAllByOwner() в ItemController для пользователя с id {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", userId, from, size);
 
-        return itemClient.getAll(userId, from, size);
+        return itemClient.getAll(userId, from, size, total);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader(USER_ID) long userId,
-                                          @PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> getById(@RequestHeader(USER_ID) long userId,
+                                                @PathVariable long itemId) {
         log.info("Вызван метод getById() в ItemController для вещи с id {}.", itemId);
 
         return itemClient.getById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<byte[]>> getAvailability(@RequestHeader(USER_ID) long userId,
+                                                        @PathVariable long itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Вызван метод getAvailability() в ItemController для вещи с id {} в период с {} по {}.",
+                itemId, from, to);
+
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> create(@Validated({Create.class})
-                                         @RequestBody ItemDto itemDto,
-                                         @RequestHeader(USER_ID) long userId) {
+    public Mono<ResponseEntity<byte[]>> create(@Validated({Create.class})
+                                               @RequestBody ItemDto itemDto,
+                                               @RequestHeader(USER_ID) long userId) {
         log.info("Вызван метод create() в ItemController для владельца c id {}.", userId);
 
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping("/bulk")
+    public void createAll(@RequestHeader(USER_ID) long userId,
+                          InputStream body,
+                          HttpServletResponse response) throws IOException {
+        log.info("Вызван метод createAll() в ItemController для владельца c id {}.", userId);
+
+        itemClient.createAll(userId, body, response);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@Validated({Update.class})
-                                         @RequestBody ItemDto itemDto,
-                                         @RequestHeader(USER_ID) long userId,
-                                         @PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> update(@Validated({Update.class})
+                                               @RequestBody ItemDto itemDto,
+                                               @RequestHeader(USER_ID) long userId,
+                                               @PathVariable long itemId) {
         log.info("Вызван метод update() в ItemController для владельца с id {} и вещи с id {}.", userId, itemId);
 
         return itemClient.update(itemDto, userId, itemId);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> delete(@PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> delete(@PathVariable long itemId) {
         log.info("Вызван метод delete() в ItemController для вещи с id {}.", itemId);
 
         return itemClient.delete(itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestHeader(USER_ID) long userId,
-                                         @RequestParam String text,
-                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                         @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<byte[]>> search(@RequestHeader(USER_ID) long userId,
+                                               @RequestParam String text,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                               @Positive @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime start,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime end) {
         log.info("Вызван метод search() в ItemController для поиска вещи по тексту {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", text, from, size);
 
-        return itemClient.search(text, userId, from, size);
+        return itemClient.search(text, userId, from, size, start, end);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@Validated({Create.class})
-                                                @RequestBody CommentDto commentDto,
-                                                @RequestHeader(USER_ID) long userId,
-                                                @PathVariable long itemId) {
+    public Mono<ResponseEntity<byte[]>> createComment(@Validated({Create.class})
+                                                      @RequestBody CommentDto commentDto,
+                                                      @RequestHeader(USER_ID) long userId,
+                                                      @PathVariable long itemId) {
         log.info("Вызван метод createComment() в ItemController пользователем с id {} для вещи с id {}.",
                 userId, itemId);
 
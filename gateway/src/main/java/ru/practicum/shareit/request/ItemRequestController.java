@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -23,16 +24,16 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(USER_ID) long userId,
-                                         @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<byte[]>> create(@RequestHeader(USER_ID) long userId,
+                                               @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Вызван метод create() в ItemRequestController пользователем с id {}.", userId);
 
         return itemRequestClient.create(userId, itemRequestDto);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader(USER_ID) int userId,
-                                          @PathVariable int requestId) {
+    public Mono<ResponseEntity<byte[]>> getById(@RequestHeader(USER_ID) int userId,
+                                                @PathVariable int requestId) {
         log.info("Вызван метод getById() в ItemRequestController пользователем с id {} о запросе с id {}.",
                 userId, requestId);
 
@@ -40,16 +41,16 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(USER_ID) int userId) {
+    public Mono<ResponseEntity<byte[]>> getAll(@RequestHeader(USER_ID) int userId) {
         log.info("Вызван метод getAll() в ItemRequestController пользователем с id {}", userId);
 
         return itemRequestClient.getAll(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllFromOtherUser(@RequestHeader(USER_ID) int userId,
-                                                      @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                      @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<byte[]>> getAllFromOtherUser(@RequestHeader(USER_ID) int userId,
+                                                            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                            @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("Вызван метод getAllFromOtherUser() в ItemRequestController пользователем с id {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", userId, from, size);
 
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Create;
 import ru.practicum.shareit.common.Update;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,38 +19,38 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<byte[]>> getAll() {
         log.info("Вызван метод getAll() в UserController.");
 
         return userClient.getAll();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> getById(@PathVariable long userId) {
         log.info("Вызван метод getById() в UserController для пользователя с id {}.", userId);
 
         return userClient.getById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated({Create.class})
-                                         @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> create(@Validated({Create.class})
+                                               @RequestBody UserDto userDto) {
         log.info("Вызван метод create() в UserController.");
 
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@Validated({Update.class})
-                                         @PathVariable long userId,
-                                         @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> update(@Validated({Update.class})
+                                               @PathVariable long userId,
+                                               @RequestBody UserDto userDto) {
         log.info("Вызван метод update() в UserController для пользователя с id {}.", userId);
 
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<byte[]>> delete(@PathVariable long userId) {
         log.info("Вызван метод delete() в UserController для пользователя с id {}.", userId);
 
         return userClient.delete(userId);
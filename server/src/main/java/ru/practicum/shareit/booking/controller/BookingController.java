@@ -5,13 +5,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingEventBus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.bulk.BulkImporter;
+import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -22,8 +32,18 @@ public class BookingController {
 
     private static final String USER_ID = "X-Sharer-User-Id";
 
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final String TOTAL_COUNT = "X-Total-Count";
+
     private final BookingService bookingService;
 
+    private final BulkImporter bulkImporter;
+
+    private final BookingEventBus bookingEventBus;
+
+    private final UserService userService;
+
     @PostMapping
     public BookingDto create(@RequestHeader(USER_ID) Long userId,
                              @RequestBody BookingRequestDto bookingRequestDto) {
@@ -33,6 +53,16 @@ public class BookingController {
         return ResponseEntity.ok().body(create).getBody();
     }
 
+    @PostMapping("/bulk")
+    public void createAll(@RequestHeader(USER_ID) Long userId,
+                          InputStream body,
+                          HttpServletResponse response) throws IOException {
+        log.info("Вызван метод createAll() в BookingController пользователем с id {}.", userId);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        bulkImporter.importAll(body, response.getOutputStream(), BookingRequestDto.class,
+                chunk -> bookingService.saveAll(userId, chunk));
+    }
+
     @PatchMapping("{bookingId}")
     public BookingDto approve(@RequestHeader(USER_ID) Long userId,
                               @PathVariable Long bookingId,
@@ -44,6 +74,14 @@ public class BookingController {
         return ResponseEntity.ok().body(approve).getBody();
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(USER_ID) Long userId) {
+        log.info("Вызван метод stream() в BookingController пользователем с id {}.", userId);
+        userService.checkExists(userId);
+
+        return bookingEventBus.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getById(@RequestHeader(USER_ID) Long userId,
                               @PathVariable Long bookingId) {
@@ -54,28 +92,70 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getByBookerId(@RequestHeader(USER_ID) Long bookerId,
-                                          @RequestParam(defaultValue = "ALL") String state,
-                                          @RequestParam(defaultValue = "0") int from,
-                                          @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDto>> getByBookerId(@RequestHeader(USER_ID) Long bookerId,
+                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(defaultValue = "0") int from,
+                                                          @RequestParam(defaultValue = "10") int size,
+                                                          @RequestParam(required = false) Long itemId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "false") boolean total) {
+        if (cursor != null) {
+            log.info("Вызван метод getByBookerId() в BookingController для пользователя с id {} с курсором '{}', " +
+                    "количество элементов для отображения {}", bookerId, cursor, size);
+            List<BookingDto> bookings = bookingService.getAllByBookerId(bookerId, state, itemId, cursor, size);
+
+            return withNextCursor(ok(total, () -> bookingService.countByBookerId(bookerId, state, itemId)),
+                    bookings, size);
+        }
         log.info("Вызван метод getByBookerId() в BookingController для пользователя с id {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", bookerId, from, size);
         Pageable pageable = PageRequest.of(from / size, size, DEFAULT_SORT);
-        List<BookingDto> getByBookerId = bookingService.getAllByBookerId(bookerId, state, pageable);
+        List<BookingDto> getByBookerId = bookingService.getAllByBookerId(bookerId, state, itemId, pageable);
 
-        return ResponseEntity.ok().body(getByBookerId).getBody();
+        return ok(total, () -> bookingService.countByBookerId(bookerId, state, itemId)).body(getByBookerId);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getByOwnerId(@RequestHeader(USER_ID) Long ownerId,
-                                         @RequestParam(defaultValue = "ALL") String state,
-                                         @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDto>> getByOwnerId(@RequestHeader(USER_ID) Long ownerId,
+                                                         @RequestParam(defaultValue = "ALL") String state,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(required = false) Long itemId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "false") boolean total) {
+        if (cursor != null) {
+            log.info("Вызван метод getByOwnerId() в BookingController для пользователя с id {} с курсором '{}', " +
+                    "количество элементов для отображения {}", ownerId, cursor, size);
+            List<BookingDto> bookings = bookingService.getAllByOwnerId(ownerId, state, itemId, cursor, size);
+
+            return withNextCursor(ok(total, () -> bookingService.countByOwnerId(ownerId, state, itemId)),
+                    bookings, size);
+        }
         log.info("Вызван метод getByOwnerId() в BookingController для пользователя с id {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", ownerId, from, size);
         Pageable pageable = PageRequest.of(from / size, size, DEFAULT_SORT);
-        List<BookingDto> getByOwnerId = bookingService.getAllByOwnerId(ownerId, state, pageable);
+        List<BookingDto> getByOwnerId = bookingService.getAllByOwnerId(ownerId, state, itemId, pageable);
+
+        return ok(total, () -> bookingService.countByOwnerId(ownerId, state, itemId)).body(getByOwnerId);
+    }
+
+    private static ResponseEntity.BodyBuilder ok(boolean total, LongSupplier count) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (total) {
+            response.header(TOTAL_COUNT, String.valueOf(count.getAsLong()));
+        }
+
+        return response;
+    }
+
+    private static ResponseEntity<List<BookingDto>> withNextCursor(ResponseEntity.BodyBuilder response,
+                                                                   List<BookingDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return response.body(bookings);
+        }
 
-        return ResponseEntity.ok().body(getByOwnerId).getBody();
+        return response
+                .header(NEXT_CURSOR, BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                .body(bookings);
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,8 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.*;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
@@ -12,17 +12,25 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class BookingDto {
     private Long id;
 
-    private Item item;
+    private ItemShortDto item;
 
     private LocalDateTime start;
 
     private LocalDateTime end;
 
-    private User booker;
+    private UserShortDto booker;
 
     @Enumerated(EnumType.STRING)
     private Status status;
-}
\ No newline at end of file
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                      Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, ItemShortDto.builder().id(itemId).name(itemName).build(), start, end,
+                UserShortDto.builder().id(bookerId).name(bookerName).build(), status);
+    }
+}
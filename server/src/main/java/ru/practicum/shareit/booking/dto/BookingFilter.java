@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Getter
+@Builder
+public class BookingFilter {
+    private final Long bookerId;
+
+    private final Long ownerId;
+
+    private final Long itemId;
+
+    private final Set<BookingState> states;
+
+    private final LocalDateTime now;
+}
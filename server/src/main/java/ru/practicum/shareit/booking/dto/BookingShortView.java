@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingShortView {
+    String LAST = "LAST";
+
+    String NEXT = "NEXT";
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    String getKind();
+}
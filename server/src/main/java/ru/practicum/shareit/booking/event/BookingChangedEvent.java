@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+/**
+ * Бронирование создано или сменило статус. Доставляется автору бронирования и владельцу вещи.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private final BookingDto booking;
+
+    private final Long ownerId;
+}
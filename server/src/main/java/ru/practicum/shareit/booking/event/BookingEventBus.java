@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Раздаёт изменения бронирований подписчикам SSE-потока. У каждого подписчика своя ограниченная очередь,
+ * которую отправляет общий пул потоков: публикация никогда не ждёт клиента, а подписчик, не успевающий
+ * разбирать очередь, отключается и при переподключении перечитывает список бронирований.
+ */
+@Component
+@Slf4j
+public class BookingEventBus implements OutboxEventHandler<BookingChangedEvent> {
+    private static final String BOOKING_EVENT = "booking";
+
+    private static final Supplier<SseEmitter.SseEventBuilder> HEARTBEAT = () -> SseEmitter.event().comment("");
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService senders;
+
+    private final int queueCapacity;
+
+    private final Duration timeout;
+
+    public BookingEventBus(@Value("${shareit.booking-stream.senders:4}") int senders,
+                           @Value("${shareit.booking-stream.queue-capacity:64}") int queueCapacity,
+                           @Value("${shareit.booking-stream.timeout:PT30M}") Duration timeout) {
+        this.senders = Executors.newFixedThreadPool(senders);
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> result = userSubscribers == null ? ConcurrentHashMap.newKeySet() : userSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(subscriber::unsubscribe);
+        emitter.onTimeout(subscriber::unsubscribe);
+        emitter.onError(e -> subscriber.unsubscribe());
+        log.debug("Пользователь с id {} подписался на изменения бронирований.", userId);
+
+        return emitter;
+    }
+
+    @Override
+    public Set<OutboxEventType> getTypes() {
+        return EnumSet.of(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_STATUS_CHANGED);
+    }
+
+    @Override
+    public void handle(OutboxEventType type, BookingChangedEvent event) {
+        // SseEventBuilder накапливает состояние при сборке, поэтому каждому подписчику нужен свой экземпляр.
+        Supplier<SseEmitter.SseEventBuilder> sseEvent = () -> SseEmitter.event()
+                .name(BOOKING_EVENT)
+                .id(String.valueOf(event.getBooking().getId()))
+                .data(event.getBooking(), MediaType.APPLICATION_JSON);
+        publish(event.getBooking().getBooker().getId(), sseEvent);
+        if (!event.getOwnerId().equals(event.getBooking().getBooker().getId())) {
+            publish(event.getOwnerId(), sseEvent);
+        }
+    }
+
+    /**
+     * Комментарий раз в интервал не даёт прокси и gateway закрыть простаивающее соединение
+     * и заодно выявляет отключившихся клиентов.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber ->
+                subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+
+    int subscriberCount(Long userId) {
+        return subscribers.getOrDefault(userId, Set.of()).size();
+    }
+
+    private void publish(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        subscribers.getOrDefault(userId, Set.of()).forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private class Subscriber {
+        private final Long userId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> queue =
+                new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (!queue.offer(event)) {
+                log.info("Пользователь с id {} не успевает получать изменения бронирований, поток закрыт.", userId);
+                unsubscribe();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            if (queue.isEmpty() && queue.offer(HEARTBEAT)) {
+                scheduleDrain();
+            }
+        }
+
+        void unsubscribe() {
+            subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+                userSubscribers.remove(this);
+                return userSubscribers.isEmpty() ? null : userSubscribers;
+            });
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event.get());
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Поток изменений бронирований пользователя с id {} закрыт: {}", userId, e.getMessage());
+                unsubscribe();
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            // Событие могло прийти между последним poll и сбросом флага.
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -6,6 +6,9 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 @Component
 public class BookingMapper {
@@ -14,21 +17,26 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(ItemShortDto.builder()
+                        .id(booking.getItem().getId())
+                        .name(booking.getItem().getName())
+                        .build())
+                .booker(UserShortDto.builder()
+                        .id(booking.getBooker().getId())
+                        .name(booking.getBooker().getName())
+                        .build())
                 .status(booking.getStatus())
                 .build();
 
     }
 
     public static Booking dtoRequestToBooking(BookingRequestDto bookingRequestDto) {
-        return new Booking(
-                bookingRequestDto.getId(),
-                bookingRequestDto.getStart(),
-                bookingRequestDto.getEnd(),
-                null,
-                null,
-                Status.WAITING);
+        return Booking.builder()
+                .id(bookingRequestDto.getId())
+                .start(bookingRequestDto.getStart())
+                .end(bookingRequestDto.getEnd())
+                .status(Status.WAITING)
+                .build();
     }
 
     public static BookingItemDto bookingItemToDto(Booking booking) {
@@ -37,4 +45,18 @@ public class BookingMapper {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static BookingItemDto lastBookingToDto(ItemBookingSummary summary) {
+        return summary.getLastBookingId() == null ? null : BookingItemDto.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .build();
+    }
+
+    public static BookingItemDto nextBookingToDto(ItemBookingSummary summary) {
+        return summary.getNextBookingId() == null ? null : BookingItemDto.builder()
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,5 +1,28 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 public enum BookingState {
-    ALL, CURRENT, FUTURE, PAST, REJECTED, WAITING
-}
\ No newline at end of file
+    ALL, CURRENT, FUTURE, PAST, REJECTED, WAITING;
+
+    private static final Pattern SEPARATOR = Pattern.compile("[,+\\s]+");
+
+    public static Optional<Set<BookingState>> from(String states) {
+        Set<BookingState> result = EnumSet.noneOf(BookingState.class);
+        for (String name : SEPARATOR.split(states.trim())) {
+            Optional<BookingState> state = Arrays.stream(values())
+                    .filter(value -> value.name().equals(name))
+                    .findFirst();
+            if (state.isEmpty()) {
+                return Optional.empty();
+            }
+            result.add(state.get());
+        }
+
+        return Optional.of(result);
+    }
+}
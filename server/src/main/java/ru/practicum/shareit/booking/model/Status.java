@@ -1,5 +1,26 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum Status {
-    WAITING, APPROVED, REJECTED, CANCELED
-}
\ No newline at end of file
+    WAITING, APPROVED, REJECTED, CANCELED;
+
+    /**
+     * Статусы, при которых бронирование занимает вещь на свой период.
+     */
+    public static final Set<Status> BLOCKING = EnumSet.of(WAITING, APPROVED);
+
+    /**
+     * Допустимые переходы статуса бронирования. Решение по бронированию принимается один раз: из любого статуса,
+     * кроме WAITING, переходов нет.
+     */
+    private static final Map<Status, Set<Status>> TRANSITIONS = new EnumMap<>(Map.of(
+            WAITING, EnumSet.of(APPROVED, REJECTED, CANCELED)));
+
+    public boolean canTransitionTo(Status target) {
+        return TRANSITIONS.getOrDefault(this, EnumSet.noneOf(Status.class)).contains(target);
+    }
+}
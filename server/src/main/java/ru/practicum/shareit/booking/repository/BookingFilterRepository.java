@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+
+import java.util.List;
+
+public interface BookingFilterRepository {
+    Slice<BookingDto> findAllByFilter(BookingFilter filter, Pageable pageable);
+
+    List<BookingDto> findAllByFilter(BookingFilter filter, BookingCursor cursor, int size);
+
+    long countByFilter(BookingFilter filter);
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingFilterRepositoryImpl implements BookingFilterRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingDto> findAllByFilter(BookingFilter filter, Pageable pageable) {
+        TypedQuery<BookingDto> query = select(filter, null);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+        // Лишняя строка сообщает о следующей странице без отдельного COUNT.
+        List<BookingDto> bookings = query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = bookings.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+
+    @Override
+    public List<BookingDto> findAllByFilter(BookingFilter filter, BookingCursor cursor, int size) {
+        return select(filter, cursor)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private TypedQuery<BookingDto> select(BookingFilter filter, BookingCursor cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        List<Predicate> predicates = predicates(cb, booking, item, filter);
+        if (cursor != null) {
+            Path<LocalDateTime> start = booking.get("start");
+            // Нестрогое условие по start ограничивает диапазон индекса, строгое отсекает уже выданные строки.
+            predicates.add(cb.lessThanOrEqualTo(start, cursor.getStart()));
+            predicates.add(cb.or(cb.lessThan(start, cursor.getStart()),
+                    cb.lessThan(booking.get("id"), cursor.getId())));
+        }
+        query.select(cb.construct(BookingDto.class,
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), booker.get("id"), booker.get("name")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+
+        return entityManager.createQuery(query);
+    }
+
+    @Override
+    public long countByFilter(BookingFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = filter.getOwnerId() == null ? null : booking.join("item");
+        query.select(cb.count(booking))
+                .where(predicates(cb, booking, item, filter).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Booking> booking, Join<Booking, Item> item,
+                                              BookingFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getBookerId() != null) {
+            predicates.add(cb.equal(booking.get("booker").get("id"), filter.getBookerId()));
+        }
+        if (filter.getOwnerId() != null) {
+            predicates.add(cb.equal(item.get("owner").get("id"), filter.getOwnerId()));
+        }
+        if (filter.getItemId() != null) {
+            predicates.add(cb.equal(booking.get("item").get("id"), filter.getItemId()));
+        }
+        if (!filter.getStates().contains(BookingState.ALL)) {
+            predicates.add(cb.or(filter.getStates().stream()
+                    .map(state -> state(cb, booking, state, filter.getNow()))
+                    .toArray(Predicate[]::new)));
+        }
+
+        return predicates;
+    }
+
+    private static Predicate state(CriteriaBuilder cb, Root<Booking> booking, BookingState state,
+                                   LocalDateTime now) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        switch (state) {
+            case CURRENT:
+                return cb.and(cb.lessThan(start, now), cb.greaterThan(end, now));
+            case PAST:
+                return cb.lessThan(end, now);
+            case FUTURE:
+                return cb.greaterThan(start, now);
+            case WAITING:
+                return cb.equal(booking.get("status"), Status.WAITING);
+            case REJECTED:
+                return cb.equal(booking.get("status"), Status.REJECTED);
+            default:
+                return cb.conjunction();
+        }
+    }
+}
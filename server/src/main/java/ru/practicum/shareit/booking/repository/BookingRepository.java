@@ -1,46 +1,58 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingBoundsView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByStartBeforeAndEndAfterAndBookerIdOrderByStartDesc(LocalDateTime start, LocalDateTime end,
-                                                                             Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByEndBeforeAndBookerIdOrderByStartDesc(LocalDateTime end, Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByStartAfterAndBookerIdOrderByStartDesc(LocalDateTime start, Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByStatusAndBookerIdOrderByStartDesc(Status status, Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    Page<Booking> findAllByStartBeforeAndEndAfterAndItemOwnerIdOrderByStartDesc(LocalDateTime start,
-                                                                                LocalDateTime end,
-                                                                                Long ownerId, Pageable pageable);
-
-    Page<Booking> findAllByEndBeforeAndItemOwnerIdOrderByStartDesc(LocalDateTime end, Long ownerId,
-                                                                   Pageable pageable);
-
-    Page<Booking> findAllByStartAfterAndItemOwnerIdOrderByStartDesc(LocalDateTime start, Long ownerId,
-                                                                    Pageable pageable);
-
-    Page<Booking> findAllByStatusAndItemOwnerIdOrderByStartDesc(Status status, Long ownerId, Pageable pageable);
-
-    List<Booking> findBookingsByItemIdAndEndIsBeforeOrderByEndDesc(Long id, LocalDateTime time);
-
-    List<Booking> findBookingsByItemIdAndStartIsAfterOrderByStartDesc(Long id, LocalDateTime time);
-
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingFilterRepository {
     List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long userId, Long itemId,
                                                                           Status status, LocalDateTime end);
-}
\ No newline at end of file
+
+    @Query("SELECT b.end FROM Booking b WHERE b.item.id = ?1 AND b.status IN ?2 AND b.start < ?3 " +
+            "ORDER BY b.start DESC")
+    List<LocalDateTime> findEndsByItemIdStartingBefore(Long itemId, Collection<Status> statuses, LocalDateTime end,
+                                                       Pageable pageable);
+
+    @Query(value = "SELECT r.id AS id, r.item_id AS itemId, r.booker_id AS bookerId, r.kind AS kind FROM (" +
+            "SELECT b.id, b.item_id, b.booker_id, 'LAST' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (?1) AND b.end_date < ?2 " +
+            "UNION ALL " +
+            "SELECT b.id, b.item_id, b.booker_id, 'NEXT' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (?1) AND b.start_date > ?2" +
+            ") r WHERE r.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastAndNextByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT b.item.id AS itemId, MIN(b.end) AS firstEnd, MAX(b.start) AS lastStart FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.end > ?2 GROUP BY b.item.id")
+    List<BookingBoundsView> findBoundsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status IN ?2 ORDER BY b.start, b.id")
+    List<BookingIntervalView> findIntervalsByItemId(Long itemId, Collection<Status> statuses);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.status IN ?2 ORDER BY b.item.id, b.start, b.id")
+    List<BookingIntervalView> findIntervalsByItemIds(Collection<Long> itemIds, Collection<Status> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?3, b.version = b.version + 1 WHERE b.id = ?1 AND b.status = ?2")
+    int updateStatus(Long id, Status expected, Status status);
+
+    @Query("SELECT b.status FROM Booking b WHERE b.id = ?1")
+    Optional<Status> findStatusById(Long id);
+}
@@ -3,17 +3,28 @@ package ru.practicum.shareit.booking.service;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDto save(Long userId, BookingRequestDto bookingRequestDto);
 
+    List<BulkResultDto> saveAll(Long userId, List<BookingRequestDto> bookingRequestDtos);
+
     BookingDto getById(Long id, Long userId);
 
-    List<BookingDto> getAllByBookerId(Long bookerId, String state, Pageable pageable);
+    List<BookingDto> getAllByBookerId(Long bookerId, String state, Long itemId, Pageable pageable);
+
+    List<BookingDto> getAllByOwnerId(Long ownerId, String state, Long itemId, Pageable pageable);
+
+    List<BookingDto> getAllByBookerId(Long bookerId, String state, Long itemId, String cursor, int size);
+
+    List<BookingDto> getAllByOwnerId(Long ownerId, String state, Long itemId, String cursor, int size);
+
+    long countByBookerId(Long bookerId, String state, Long itemId);
 
-    List<BookingDto> getAllByOwnerId(Long ownerId, String state, Pageable pageable);
+    long countByOwnerId(Long ownerId, String state, Long itemId);
 
     BookingDto approve(Long bookingId, Long ownerId, boolean approved);
 }
\ No newline at end of file
@@ -1,28 +1,42 @@
 package ru.practicum.shareit.booking.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.*;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.IncorrectStateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Function;
 
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.*;
 import static ru.practicum.shareit.user.mapper.UserMapper.*;
 
@@ -30,22 +44,73 @@ import static ru.practicum.shareit.user.mapper.UserMapper.*;
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
-
     private final BookingRepository bookingRepository;
 
     private final ItemRepository itemRepository;
 
     private final UserService userService;
 
+    private final OutboxPublisher outboxPublisher;
+
     @Override
     public BookingDto save(Long userId, BookingRequestDto bookingRequestDto) {
         Booking booking = dtoRequestToBooking(bookingRequestDto);
         booking.setBooker(dtoToUser(userService.getById(userId)));
-        Item item = getValidItemForBooking(bookingRequestDto, booking, userId);
+        Item item = itemRepository
+                .findByIdForUpdate(bookingRequestDto.getItemId())
+                .orElseThrow(() -> itemNotFound(bookingRequestDto.getItemId()));
+        throwIfCannotBook(item, booking, userId);
         booking.setItem(item);
         Booking bookingCreate = bookingRepository.save(booking);
+        BookingDto bookingDto = bookingToDto(bookingCreate);
+        outboxPublisher.publish(OutboxEventType.BOOKING_CREATED, bookingDto.getId(),
+                new BookingChangedEvent(bookingDto, item.getOwner().getId()));
+
+        return bookingDto;
+    }
 
-        return bookingToDto(bookingCreate);
+    @Override
+    public List<BulkResultDto> saveAll(Long userId, List<BookingRequestDto> bookingRequestDtos) {
+        User booker = dtoToUser(userService.getById(userId));
+        List<BulkResultDto> results = new ArrayList<>(bookingRequestDtos.size());
+        List<Booking> bookings = new ArrayList<>(bookingRequestDtos.size());
+        // Все вещи пачки блокируются сразу и в порядке id: при поэлементной блокировке в порядке запроса
+        // две пачки с одними и теми же вещами могли бы заблокировать друг друга.
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(bookingRequestDtos.stream()
+                        .map(BookingRequestDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(toSet())).stream()
+                .collect(toMap(Item::getId, Function.identity()));
+        for (BookingRequestDto bookingRequestDto : bookingRequestDtos) {
+            try {
+                if (bookingRequestDto.getItemId() == null || bookingRequestDto.getStart() == null ||
+                        bookingRequestDto.getEnd() == null) {
+                    throw new BadRequestException("Не указаны вещь или время бронирования.");
+                }
+                Booking booking = dtoRequestToBooking(bookingRequestDto);
+                booking.setBooker(booker);
+                Item item = Optional.ofNullable(items.get(bookingRequestDto.getItemId()))
+                        .orElseThrow(() -> itemNotFound(bookingRequestDto.getItemId()));
+                throwIfCannotBook(item, booking, userId);
+                booking.setItem(item);
+                throwIfOverlaps(booking, bookings);
+                bookings.add(booking);
+                results.add(BulkResultDto.builder().build());
+            } catch (BadRequestException | NotFoundException e) {
+                results.add(BulkResultDto.builder().error(e.getMessage()).build());
+            }
+        }
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        savedBookings.forEach(booking -> outboxPublisher.publish(OutboxEventType.BOOKING_CREATED, booking.getId(),
+                new BookingChangedEvent(bookingToDto(booking), booking.getItem().getOwner().getId())));
+        Iterator<Booking> saved = savedBookings.iterator();
+        for (BulkResultDto result : results) {
+            if (result.getError() == null) {
+                result.setId(saved.next().getId());
+            }
+        }
+
+        return results;
     }
 
     @Override
@@ -62,69 +127,65 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getAllByBookerId(Long bookerId, String state, Pageable pageable) {
-        throwNotValidState(state);
-        userService.getById(bookerId);
-        Page<Booking> bookings = null;
-        LocalDateTime now = LocalDateTime.now();
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByStartBeforeAndEndAfterAndBookerIdOrderByStartDesc(now, now,
-                        bookerId, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByEndBeforeAndBookerIdOrderByStartDesc(now, bookerId, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByStartAfterAndBookerIdOrderByStartDesc(now, bookerId, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByStatusAndBookerIdOrderByStartDesc(Status.WAITING, bookerId,
-                        pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByStatusAndBookerIdOrderByStartDesc(Status.REJECTED, bookerId,
-                        pageable);
-                break;
-        }
+    public List<BookingDto> getAllByBookerId(Long bookerId, String state, Long itemId, Pageable pageable) {
+        BookingFilter filter = filter(state)
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .build();
+        userService.checkExists(bookerId);
 
-        return bookings.stream().map(BookingMapper::bookingToDto).collect(Collectors.toList());
+        return bookingRepository.findAllByFilter(filter, pageable).getContent();
     }
 
     @Override
-    public List<BookingDto> getAllByOwnerId(Long ownerId, String state, Pageable pageable) {
-        throwNotValidState(state);
-        userService.getById(ownerId);
-        Page<Booking> bookings = null;
-        LocalDateTime now = LocalDateTime.now();
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByStartBeforeAndEndAfterAndItemOwnerIdOrderByStartDesc(now, now,
-                        ownerId, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByEndBeforeAndItemOwnerIdOrderByStartDesc(now, ownerId, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByStartAfterAndItemOwnerIdOrderByStartDesc(now, ownerId, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByStatusAndItemOwnerIdOrderByStartDesc(Status.WAITING, ownerId,
-                        pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByStatusAndItemOwnerIdOrderByStartDesc(Status.REJECTED, ownerId,
-                        pageable);
-                break;
-        }
+    public List<BookingDto> getAllByOwnerId(Long ownerId, String state, Long itemId, Pageable pageable) {
+        BookingFilter filter = filter(state)
+                .ownerId(ownerId)
+                .itemId(itemId)
+                .build();
+        userService.checkExists(ownerId);
+
+        return bookingRepository.findAllByFilter(filter, pageable).getContent();
+    }
+
+    @Override
+    public List<BookingDto> getAllByBookerId(Long bookerId, String state, Long itemId, String cursor, int size) {
+        BookingFilter filter = filter(state)
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .build();
+        userService.checkExists(bookerId);
+
+        return bookingRepository.findAllByFilter(filter, decodeCursor(cursor), size);
+    }
+
+    @Override
+    public List<BookingDto> getAllByOwnerId(Long ownerId, String state, Long itemId, String cursor, int size) {
+        BookingFilter filter = filter(state)
+                .ownerId(ownerId)
+                .itemId(itemId)
+                .build();
+        userService.checkExists(ownerId);
+
+        return bookingRepository.findAllByFilter(filter, decodeCursor(cursor), size);
+    }
 
-        return bookings.stream().map(BookingMapper::bookingToDto).collect(Collectors.toList());
+    @Override
+    @Cacheable(cacheNames = CacheConfig.LISTING_COUNTS, key = "{'bookings', #bookerId, #state, #itemId}")
+    public long countByBookerId(Long bookerId, String state, Long itemId) {
+        return bookingRepository.countByFilter(filter(state)
+                .bookerId(bookerId)
+                .itemId(itemId)
+                .build());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.LISTING_COUNTS, key = "{'bookings-owner', #ownerId, #state, #itemId}")
+    public long countByOwnerId(Long ownerId, String state, Long itemId) {
+        return bookingRepository.countByFilter(filter(state)
+                .ownerId(ownerId)
+                .itemId(itemId)
+                .build());
     }
 
     @Override
@@ -136,28 +197,65 @@ public class BookingServiceImpl implements BookingService {
         if (!Objects.equals(booking.getItem().getOwner().getId(), ownerId)) {
             throw new NotFoundException("Подтвердить бронирование может только владелец вещи.");
         }
-        if (booking.getStatus().equals(Status.APPROVED)) {
-            throw new BadRequestException("Бронирование уже было подтверждено.");
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (booking.getStatus() == status) {
+            // Повторное решение с тем же итогом ничего не меняет: отвечаем без записи.
+            return bookingToDto(booking);
         }
-        booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        bookingRepository.save(booking);
+        throwIfCannotTransition(booking.getStatus(), status);
+        // Переход применяется одним условным UPDATE: из конкурирующих решений выигрывает первое.
+        if (bookingRepository.updateStatus(bookingId, booking.getStatus(), status) == 0) {
+            Status current = bookingRepository.findStatusById(bookingId)
+                    .orElseThrow(() -> new NotFoundException(String.format("Бронирования с id = %s не существует.",
+                            bookingId)));
+            if (current != status) {
+                throwIfCannotTransition(current, status);
+            }
+            booking.setStatus(status);
 
-        return bookingToDto(booking);
+            return bookingToDto(booking);
+        }
+        booking.setStatus(status);
+        booking.setVersion(booking.getVersion() + 1);
+        BookingDto bookingDto = bookingToDto(booking);
+        outboxPublisher.publish(OutboxEventType.BOOKING_STATUS_CHANGED, bookingId,
+                new BookingChangedEvent(bookingDto, ownerId));
+
+        return bookingDto;
+    }
+
+    private BookingFilter.BookingFilterBuilder filter(String state) {
+        return BookingFilter.builder()
+                .states(BookingState.from(state)
+                        .orElseThrow(() -> new IncorrectStateException(String.format("Unknown state: %s", state))))
+                .now(LocalDateTime.now());
     }
 
-    private void throwNotValidState(String state) {
-        try {
-            BookingState.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new IncorrectStateException(String.format("Unknown state: %s", state));
+    private BookingCursor decodeCursor(String cursor) {
+        return cursor.isBlank() ? null : BookingCursor.decode(cursor);
+    }
+
+    private void throwIfCannotTransition(Status from, Status to) {
+        if (!from.canTransitionTo(to)) {
+            throw new BadRequestException(String.format("Нельзя изменить статус бронирования с %s на %s.", from, to));
         }
     }
 
-    private Item getValidItemForBooking(BookingRequestDto bookingRequestDto, Booking booking, Long userId) {
-        Item item = itemRepository
-                .findById(bookingRequestDto.getItemId())
-                .orElseThrow(() -> new NotFoundException(String.format("Вещь с id = %s не найдена.",
-                        bookingRequestDto.getItemId())));
+    private void throwIfOverlaps(Booking booking, List<Booking> accepted) {
+        boolean overlaps = accepted.stream()
+                .anyMatch(other -> Objects.equals(other.getItem().getId(), booking.getItem().getId()) &&
+                        other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()));
+        if (overlaps) {
+            throw new BadRequestException(String.format("Вещь с id = %s уже забронирована на указанный период.",
+                    booking.getItem().getId()));
+        }
+    }
+
+    private NotFoundException itemNotFound(Long itemId) {
+        return new NotFoundException(String.format("Вещь с id = %s не найдена.", itemId));
+    }
+
+    private void throwIfCannotBook(Item item, Booking booking, Long userId) {
         if (Objects.equals(item.getOwner().getId(), userId)) {
             throw new NotFoundException("Владелец вещи не может забронировать свою вещь");
         }
@@ -171,6 +269,14 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException(
                     String.format("Вещь с id = %s недоступна для бронирования.", item.getId()));
         }
-        return item;
+        // Блокирующие бронирования вещи не пересекаются, поэтому новое пересекается с каким-либо из них, только если
+        // пересекается с последним начавшимся до его конца: вся история бронирований вещи не просматривается.
+        boolean overlaps = bookingRepository.findEndsByItemIdStartingBefore(item.getId(), Status.BLOCKING,
+                        booking.getEnd(), PageRequest.of(0, 1)).stream()
+                .anyMatch(end -> end.isAfter(booking.getStart()));
+        if (overlaps) {
+            throw new BadRequestException(
+                    String.format("Вещь с id = %s уже забронирована на указанный период.", item.getId()));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImporter {
+    public static final int CHUNK_SIZE = 50;
+
+    private final ObjectMapper objectMapper;
+
+    public <T> void importAll(InputStream in, OutputStream out, Class<T> type,
+                              Function<List<T>, List<BulkResultDto>> chunkHandler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+            int index = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    JsonStreamContext container = token.isStructStart() ?
+                            parser.getParsingContext().getParent() : parser.getParsingContext();
+                    try {
+                        chunk.add(parser.readValueAs(type));
+                    } catch (JsonMappingException e) {
+                        // Синтаксически верный элемент, который не отображается на тип, отклоняется отдельно:
+                        // его токены пропускаются, и разбор продолжается со следующего элемента.
+                        skipElement(parser, container);
+                        index = writeChunk(generator, chunk, index, chunkHandler);
+                        generator.writeObject(BulkResultDto.builder()
+                                .index(index++)
+                                .error(String.format("Некорректные данные: %s", e.getOriginalMessage()))
+                                .build());
+                    }
+                    if (chunk.size() == CHUNK_SIZE) {
+                        index = writeChunk(generator, chunk, index, chunkHandler);
+                    }
+                    token = parser.nextToken();
+                }
+                writeChunk(generator, chunk, index, chunkHandler);
+            } catch (JsonParseException e) {
+                index = writeChunk(generator, chunk, index, chunkHandler);
+                generator.writeObject(BulkResultDto.builder()
+                        .index(index)
+                        .error(String.format("Некорректный JSON: %s", e.getOriginalMessage()))
+                        .build());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Дочитывает элемент, на котором остановилось отображение, до возврата разбора в объемлющий контекст.
+     */
+    private static void skipElement(JsonParser parser, JsonStreamContext container) throws IOException {
+        while (parser.getParsingContext() != container) {
+            parser.skipChildren();
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    private <T> int writeChunk(JsonGenerator generator, List<T> chunk, int index,
+                               Function<List<T>, List<BulkResultDto>> chunkHandler) throws IOException {
+        for (BulkResultDto result : handleChunk(chunk, chunkHandler)) {
+            result.setIndex(index++);
+            generator.writeObject(result);
+        }
+        generator.flush();
+        chunk.clear();
+
+        return index;
+    }
+
+    private <T> List<BulkResultDto> handleChunk(List<T> chunk, Function<List<T>, List<BulkResultDto>> chunkHandler) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return chunkHandler.apply(chunk);
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                log.info("Ошибка при пакетной обработке: {}", e.getMessage());
+                return List.of(BulkResultDto.builder()
+                        .error(e.getMessage())
+                        .build());
+            }
+            List<BulkResultDto> results = new ArrayList<>(chunk.size());
+            for (T element : chunk) {
+                results.addAll(handleChunk(List.of(element), chunkHandler));
+            }
+            return results;
+        }
+    }
+}
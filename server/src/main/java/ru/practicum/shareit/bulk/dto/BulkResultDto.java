@@ -0,0 +1,16 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class BulkResultDto {
+    private Integer index;
+
+    private Long id;
+
+    private String error;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+
+    public static final String USER_EXISTS = "userExists";
+
+    public static final String LISTING_COUNTS = "listingCounts";
+
+    /**
+     * Общее число записей для списков отдаётся только по запросу клиента и считается оценкой: значение живёт
+     * в кеше заданное время и не сбрасывается при изменении данных.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> listingCountsCache(
+            @Value("${shareit.cache.listing-counts-ttl:1m}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(LISTING_COUNTS, Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -32,6 +33,13 @@ public class ErrorHandler {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleException(OptimisticLockingFailureException e) {
+        log.info("Ошибка: {}", e.getMessage(), e);
+
+        return new ResponseEntity<>("Данные были изменены другим запросом, повторите попытку.", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IncorrectStateException.class)
     public ResponseEntity<?> handleException(IncorrectStateException e) {
         log.error("Ошибка: {}", e.getMessage(), e);
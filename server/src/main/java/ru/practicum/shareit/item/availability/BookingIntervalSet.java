@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Неизменяемый набор интервалов бронирований одной вещи в параллельных массивах, отсортированных по началу.
+ * Изменения возвращают новый набор, поэтому читатели работают без блокировок.
+ */
+class BookingIntervalSet {
+    static final BookingIntervalSet EMPTY =
+            new BookingIntervalSet(new long[0], new LocalDateTime[0], new LocalDateTime[0]);
+
+    private final long[] ids;
+
+    private final LocalDateTime[] starts;
+
+    private final LocalDateTime[] ends;
+
+    // Максимум окончаний на префиксе монотонен даже при пересекающихся бронированиях из старых данных,
+    // поэтому первый интервал, заканчивающийся после начала периода, ищется двоичным поиском.
+    private final LocalDateTime[] maxEnds;
+
+    private BookingIntervalSet(long[] ids, LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new LocalDateTime[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = i > 0 && maxEnds[i - 1].isAfter(ends[i]) ? maxEnds[i - 1] : ends[i];
+        }
+    }
+
+    /**
+     * Интервалы должны быть упорядочены по началу и id.
+     */
+    static BookingIntervalSet of(List<BookingIntervalView> intervals) {
+        long[] ids = new long[intervals.size()];
+        LocalDateTime[] starts = new LocalDateTime[intervals.size()];
+        LocalDateTime[] ends = new LocalDateTime[intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            ids[i] = intervals.get(i).getId();
+            starts[i] = intervals.get(i).getStart();
+            ends[i] = intervals.get(i).getEnd();
+        }
+
+        return new BookingIntervalSet(ids, starts, ends);
+    }
+
+    BookingIntervalSet with(long id, LocalDateTime start, LocalDateTime end) {
+        if (indexOf(id) >= 0) {
+            return this;
+        }
+        int position = 0;
+        while (position < ids.length && (starts[position].isBefore(start) ||
+                starts[position].isEqual(start) && ids[position] < id)) {
+            position++;
+        }
+        long[] newIds = new long[ids.length + 1];
+        LocalDateTime[] newStarts = new LocalDateTime[ids.length + 1];
+        LocalDateTime[] newEnds = new LocalDateTime[ids.length + 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(starts, 0, newStarts, 0, position);
+        System.arraycopy(ends, 0, newEnds, 0, position);
+        newIds[position] = id;
+        newStarts[position] = start;
+        newEnds[position] = end;
+        System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+        System.arraycopy(starts, position, newStarts, position + 1, ids.length - position);
+        System.arraycopy(ends, position, newEnds, position + 1, ids.length - position);
+
+        return new BookingIntervalSet(newIds, newStarts, newEnds);
+    }
+
+    BookingIntervalSet without(long id) {
+        int position = indexOf(id);
+        if (position < 0) {
+            return this;
+        }
+        return new BookingIntervalSet(remove(ids, position), remove(starts, position), remove(ends, position));
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Разбивает период [from, to) на занятые и свободные отрезки за O(log n + k), где k - число бронирований,
+     * пересекающих период.
+     */
+    List<AvailabilitySlotDto> slots(LocalDateTime from, LocalDateTime to) {
+        int first = firstEndingAfter(from);
+        int last = firstStartingNotBefore(to);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (int i = first; i < last; i++) {
+            if (!ends[i].isAfter(cursor)) {
+                continue;
+            }
+            LocalDateTime start = starts[i].isAfter(cursor) ? starts[i] : cursor;
+            LocalDateTime end = ends[i].isBefore(to) ? ends[i] : to;
+            if (start.isAfter(cursor)) {
+                slots.add(slot(cursor, start, true));
+            }
+            slots.add(slot(start, end, false));
+            cursor = end;
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(slot(cursor, to, true));
+        }
+
+        return slots;
+    }
+
+    boolean isFree(LocalDateTime from, LocalDateTime to) {
+        int last = firstStartingNotBefore(to);
+        for (int i = firstEndingAfter(from); i < last; i++) {
+            if (ends[i].isAfter(from)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int firstEndingAfter(LocalDateTime time) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle].isAfter(time)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    private int firstStartingNotBefore(LocalDateTime time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle].isBefore(time)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static long[] remove(long[] values, int position) {
+        long[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+
+        return result;
+    }
+
+    private static LocalDateTime[] remove(LocalDateTime[] values, int position) {
+        LocalDateTime[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+
+        return result;
+    }
+
+    private static AvailabilitySlotDto slot(LocalDateTime start, LocalDateTime end, boolean free) {
+        return AvailabilitySlotDto.builder()
+                .start(start)
+                .end(end)
+                .free(free)
+                .build();
+    }
+}
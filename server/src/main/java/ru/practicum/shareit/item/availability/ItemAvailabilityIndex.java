@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Хранит в памяти интервалы ожидающих и подтверждённых бронирований по вещам. Набор вещи загружается из базы
+ * при первом запросе, а дальше поддерживается по событиям outbox: изменения бронирований применяет
+ * {@link ItemAvailabilityUpdater}, удаление вещи вытесняет её набор. Изменения применяются только к уже загруженным наборам и не зависят
+ * от порядка с загрузкой: добавление и удаление идемпотентны по id бронирования. Срок жизни записи ограничивает
+ * расхождение с изменениями, сделанными другими экземплярами приложения.
+ */
+@Component
+public class ItemAvailabilityIndex implements OutboxEventHandler<ItemDto> {
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, BookingIntervalSet> intervals;
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                 @Value("${shareit.availability.ttl:PT10M}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.intervals = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public List<AvailabilitySlotDto> getSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return intervals.get(itemId, id -> BookingIntervalSet.of(
+                        bookingRepository.findIntervalsByItemId(id, Status.BLOCKING)))
+                .slots(from, to);
+    }
+
+    /**
+     * Оставляет из списка вещи, свободные на весь период [from, to), сохраняя порядок. Наборы, которых нет
+     * в памяти, загружаются одним запросом.
+     */
+    public List<Long> filterFree(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, BookingIntervalSet> sets = new HashMap<>(intervals.getAllPresent(itemIds));
+        List<Long> missing = itemIds.stream()
+                .filter(id -> !sets.containsKey(id))
+                .collect(toList());
+        if (!missing.isEmpty()) {
+            sets.putAll(load(missing));
+        }
+
+        return itemIds.stream()
+                .filter(id -> sets.get(id).isFree(from, to))
+                .collect(toList());
+    }
+
+    public void add(BookingDto booking) {
+        modifications.incrementAndGet();
+        intervals.asMap().computeIfPresent(booking.getItem().getId(), (id, set) -> set.with(booking.getId(),
+                booking.getStart(), booking.getEnd()));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        modifications.incrementAndGet();
+        intervals.asMap().computeIfPresent(itemId, (id, set) -> set.without(bookingId));
+    }
+
+    @Override
+    public Set<OutboxEventType> getTypes() {
+        return EnumSet.of(OutboxEventType.ITEM_DELETED);
+    }
+
+    @Override
+    public void handle(OutboxEventType type, ItemDto item) {
+        modifications.incrementAndGet();
+        intervals.invalidate(item.getId());
+    }
+
+    private Map<Long, BookingIntervalSet> load(List<Long> itemIds) {
+        long version = modifications.get();
+        Map<Long, List<BookingIntervalView>> byItem = bookingRepository
+                .findIntervalsByItemIds(itemIds, Status.BLOCKING).stream()
+                .collect(groupingBy(BookingIntervalView::getItemId));
+        Map<Long, BookingIntervalSet> loaded = new HashMap<>();
+        itemIds.forEach(id -> loaded.put(id, BookingIntervalSet.of(byItem.getOrDefault(id, List.of()))));
+        loaded.forEach(intervals.asMap()::putIfAbsent);
+        // В отличие от загрузки одной вещи, пакетная загрузка не атомарна относительно изменений: изменение,
+        // зафиксированное во время запроса, могло не найти набор в памяти и не попасть в прочитанные данные.
+        if (modifications.get() != version) {
+            intervals.invalidateAll(itemIds);
+        }
+
+        return loaded;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Обновляет интервалы вещей по событиям бронирований. Статус перечитывается из базы, поэтому повторная
+ * или запоздавшая доставка события не возвращает в набор уже отклонённое бронирование.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityUpdater implements OutboxEventHandler<BookingChangedEvent> {
+    private final BookingRepository bookingRepository;
+
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Override
+    public Set<OutboxEventType> getTypes() {
+        return EnumSet.of(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_STATUS_CHANGED);
+    }
+
+    @Override
+    public void handle(OutboxEventType type, BookingChangedEvent event) {
+        BookingDto booking = event.getBooking();
+        boolean blocking = bookingRepository.findStatusById(booking.getId())
+                .filter(Status.BLOCKING::contains)
+                .isPresent();
+        if (blocking) {
+            itemAvailabilityIndex.add(booking);
+        } else {
+            itemAvailabilityIndex.remove(booking.getItem().getId(), booking.getId());
+        }
+    }
+}
@@ -5,14 +5,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulk.BulkImporter;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,18 +32,28 @@ public class ItemController {
 
     private static final String USER_ID = "X-Sharer-User-Id";
 
+    private static final String TOTAL_COUNT = "X-Total-Count";
+
     private final ItemService itemService;
 
+    private final BulkImporter bulkImporter;
+
     @GetMapping
-    public List<ItemDtoWithBooking> getAllByOwner(@RequestHeader(USER_ID) Long ownerId,
-                                                  @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ItemDtoWithBooking>> getAllByOwner(@RequestHeader(USER_ID) Long ownerId,
+                                                                  @RequestParam(defaultValue = "0") int from,
+                                                                  @RequestParam(defaultValue = "10") int size,
+                                                                  @RequestParam(defaultValue = "false") boolean total) {
         log.info("Вызван метод getAllByOwner() в ItemController для пользователя с id {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", ownerId, from, size);
         Pageable pageable = PageRequest.of(from / size, size, DEFAULT_SORT);
         List<ItemDtoWithBooking> getAllByOwner = itemService.getAllByOwner(ownerId, pageable);
+        if (!total) {
+            return ResponseEntity.ok().body(getAllByOwner);
+        }
 
-        return ResponseEntity.ok().body(getAllByOwner).getBody();
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT, String.valueOf(itemService.countByOwner(ownerId)))
+                .body(getAllByOwner);
     }
 
     @GetMapping("/{id}")
@@ -47,6 +65,18 @@ public class ItemController {
         return ResponseEntity.ok().body(getById).getBody();
     }
 
+    @GetMapping("/{id}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable Long id,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime to) {
+        log.info("Вызван метод getAvailability() в ItemController для вещи с id {} в период с {} по {}.",
+                id, from, to);
+
+        return itemService.getAvailability(id, from, to);
+    }
+
     @PostMapping
     public ItemDto create(@RequestBody ItemDto itemDto,
                           @RequestHeader(USER_ID) Long ownerId) {
@@ -56,6 +86,16 @@ public class ItemController {
         return ResponseEntity.ok().body(create).getBody();
     }
 
+    @PostMapping("/bulk")
+    public void createAll(@RequestHeader(USER_ID) Long ownerId,
+                          InputStream body,
+                          HttpServletResponse response) throws IOException {
+        log.info("Вызван метод createAll() в ItemController для владельца c id {}.", ownerId);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        bulkImporter.importAll(body, response.getOutputStream(), ItemDto.class,
+                chunk -> itemService.createAll(chunk, ownerId));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestBody ItemDto itemDto,
                           @RequestHeader(USER_ID) Long ownerId,
@@ -77,11 +117,17 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam String text,
                                 @RequestParam(defaultValue = "0") int from,
-                                @RequestParam(defaultValue = "10") int size) {
+                                @RequestParam(defaultValue = "10") int size,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                LocalDateTime start,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                LocalDateTime end) {
         log.info("Вызван метод search() в ItemController для поиска вещи по тексту {}, где " +
                 "индекс первого элемента = {}, количество элементов для отображения {}", text, from, size);
         Pageable pageable = PageRequest.of(from / size, size, DEFAULT_SORT);
-        List<ItemDto> search = itemService.search(text, pageable);
+        List<ItemDto> search = start == null && end == null
+                ? itemService.search(text, pageable)
+                : itemService.searchFree(text, start, end, pageable);
 
         return ResponseEntity.ok().body(search).getBody();
     }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+public class AvailabilitySlotDto {
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private boolean free;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+public class ItemShortDto {
+    private Long id;
+
+    private String name;
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее бронирование вещи. Строка пересчитывается при создании и подтверждении бронирований,
+ * а также фоновой задачей, когда наступает {@code refreshAt} — ближайший момент, после которого последнее
+ * или следующее бронирование сменится без записи в базу.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public boolean isFresh(LocalDateTime now) {
+        return refreshAt == null || refreshAt.isAfter(now);
+    }
+}
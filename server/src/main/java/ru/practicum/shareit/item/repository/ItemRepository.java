@@ -1,23 +1,74 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwnerId(Long ownerId, Pageable pageable);
+    @EntityGraph(attributePaths = {"owner", "request.requester"})
+    Slice<Item> findByOwnerId(Long ownerId, Pageable pageable);
+
+    long countByOwnerId(Long ownerId);
+
+    @Query(value = "SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
+            "ORDER BY CASE " +
+            "WHEN LOWER(i.name) = LOWER(?1) THEN 0 " +
+            "WHEN LOWER(i.name) LIKE LOWER(CONCAT(?1, '%')) THEN 1 " +
+            "WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) THEN 2 " +
+            "ELSE 3 END, i.id")
+    Slice<Item> searchAvailableItems(String text, Pageable pageable);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))" +
-            "AND i.available = TRUE")
-    Page<Item> searchAvailableItems(String text, Pageable pageable);
+    @Query(value = "SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i AND b.status IN ?4 AND b.start < ?3 AND b.end > ?2) " +
+            "ORDER BY CASE " +
+            "WHEN LOWER(i.name) = LOWER(?1) THEN 0 " +
+            "WHEN LOWER(i.name) LIKE LOWER(CONCAT(?1, '%')) THEN 1 " +
+            "WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) THEN 2 " +
+            "ELSE 3 END, i.id")
+    Slice<Item> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, Collection<Status> statuses,
+                                Pageable pageable);
 
+    @Query("SELECT i FROM Item i WHERE i.request.id = ?1")
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "items-by-request")
+    })
     List<Item> findByRequestId(Long requestId);
+
+    @EntityGraph(attributePaths = {"owner", "request.requester"})
+    @Query("SELECT i FROM Item i WHERE i.request.id IN ?1")
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN ?1 ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(prefix = "shareit.search", name = "engine", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_SIZE = 3;
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private static final int FREE_CHECK_CHUNK_SIZE = 200;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    private Map<String, LongPostingList> postings = new HashMap<>();
+
+    private Map<Long, Document> documents = new HashMap<>();
+
+    // Изменения, применённые во время построения индекса; null означает удалённый документ.
+    private Map<Long, Document> changesDuringBuild;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Индекс строится в отдельных структурах и подменяет рабочий целиком, поэтому поиск не видит его частично.
+     * Изменения, зафиксированные во время построения, повторяются поверх прочитанного: страница, прочитанная
+     * до фиксации изменения, не затирает более новую версию документа.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<String, LongPostingList> builtPostings = new HashMap<>();
+        Map<Long, Document> builtDocuments = new HashMap<>();
+        try {
+            Pageable pageable = PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+            Slice<Item> items;
+            do {
+                items = itemRepository.findAll(pageable);
+                items.forEach(item -> put(builtDocuments, builtPostings, item.getId(), new Document(item)));
+                pageable = items.nextPageable();
+            } while (items.hasNext());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringBuild.forEach((id, document) -> put(builtDocuments, builtPostings, id, document));
+                documents = builtDocuments;
+                postings = builtPostings;
+                changesDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Построен поисковый индекс вещей: {} документов, {} триграмм.", builtDocuments.size(),
+                builtPostings.size());
+    }
+
+    @Override
+    public Slice<Item> search(String text, Pageable pageable) {
+        List<Long> ids = rankedIds(text);
+        List<Long> pageIds = pageable.isPaged()
+                ? ids.subList((int) Math.min(pageable.getOffset(), ids.size()),
+                (int) Math.min(pageable.getOffset() + pageable.getPageSize(), ids.size()))
+                : ids;
+
+        return new PageImpl<>(findAllById(pageIds), pageable, ids.size());
+    }
+
+    /**
+     * Проверяет кандидатов по индексу занятости порциями в порядке релевантности и останавливается,
+     * как только набрана запрошенная страница и ещё одна вещь для признака следующей страницы.
+     */
+    @Override
+    public Slice<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        List<Long> ids = rankedIds(text);
+        long wanted = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() + 1 : Long.MAX_VALUE;
+        List<Long> freeIds = new ArrayList<>();
+        for (int i = 0; i < ids.size() && freeIds.size() < wanted; i += FREE_CHECK_CHUNK_SIZE) {
+            freeIds.addAll(itemAvailabilityIndex.filterFree(ids.subList(i, Math.min(i + FREE_CHECK_CHUNK_SIZE,
+                    ids.size())), start, end));
+        }
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findAllById(freeIds));
+        }
+        boolean hasNext = freeIds.size() > pageable.getOffset() + pageable.getPageSize();
+        List<Long> pageIds = freeIds.subList((int) Math.min(pageable.getOffset(), freeIds.size()),
+                (int) Math.min(pageable.getOffset() + pageable.getPageSize(), freeIds.size()));
+
+        return new SliceImpl<>(findAllById(pageIds), pageable, hasNext);
+    }
+
+    public void index(Item item) {
+        Item snapshot = Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+        afterCommit(() -> put(snapshot));
+    }
+
+    public void remove(Long itemId) {
+        afterCommit(() -> delete(itemId));
+    }
+
+    private List<Long> rankedIds(String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            return Arrays.stream(candidates(query))
+                    .mapToObj(id -> Map.entry(id, documents.get(id)))
+                    .filter(entry -> entry.getValue().matches(query))
+                    .sorted(Comparator.comparingInt((Map.Entry<Long, Document> entry) -> entry.getValue().rank(query))
+                            .thenComparing(Map.Entry::getKey))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Item> findAllById(List<Long> ids) {
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private long[] candidates(String query) {
+        Set<String> grams = grams(query);
+        if (grams.isEmpty()) {
+            return documents.keySet().stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        }
+        List<LongPostingList> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+        long[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).intersect(result);
+        }
+
+        return result;
+    }
+
+    private void put(Item item) {
+        apply(item.getId(), new Document(item));
+    }
+
+    private void delete(Long itemId) {
+        apply(itemId, null);
+    }
+
+    private void apply(Long itemId, Document document) {
+        lock.writeLock().lock();
+        try {
+            put(documents, postings, itemId, document);
+            if (changesDuringBuild != null) {
+                changesDuringBuild.put(itemId, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(Map<Long, Document> documents, Map<String, LongPostingList> postings, Long itemId,
+                            Document document) {
+        Document previous = documents.remove(itemId);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                LongPostingList list = postings.get(gram);
+                if (list != null) {
+                    list.remove(itemId);
+                    if (list.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        if (document == null || !document.available) {
+            return;
+        }
+        documents.put(itemId, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new LongPostingList()).add(itemId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+
+        return grams;
+    }
+
+    private static class Document {
+        private final String name;
+
+        private final String description;
+
+        private final boolean available;
+
+        Document(Item item) {
+            this.name = item.getName() == null ? "" : item.getName().toLowerCase(Locale.ROOT);
+            this.description = item.getDescription() == null ? "" : item.getDescription().toLowerCase(Locale.ROOT);
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+
+            return grams;
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        int rank(String query) {
+            if (name.equals(query)) {
+                return 0;
+            }
+            if (name.startsWith(query)) {
+                return 1;
+            }
+
+            return name.contains(query) ? 2 : 3;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+public interface ItemSearchEngine {
+    Slice<Item> search(String text, Pageable pageable);
+
+    /**
+     * Ищет вещи так же, как {@link #search}, оставляя только те, что свободны на весь период [start, end).
+     */
+    Slice<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+}
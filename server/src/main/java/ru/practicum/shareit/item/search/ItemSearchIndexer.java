@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Обновляет поисковый индекс по событиям изменения вещей. Вещь перечитывается из базы, поэтому повторная
+ * или запоздавшая доставка события не откатывает индекс к старому состоянию. Нужен только движку в памяти:
+ * SQL-поиск читает таблицу вещей напрямую.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shareit.search", name = "engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class ItemSearchIndexer implements OutboxEventHandler<ItemDto> {
+    private final ItemRepository itemRepository;
+
+    private final InMemoryItemSearchEngine itemSearchEngine;
+
+    @Override
+    public Set<OutboxEventType> getTypes() {
+        return EnumSet.of(OutboxEventType.ITEM_CREATED, OutboxEventType.ITEM_UPDATED, OutboxEventType.ITEM_DELETED);
+    }
+
+    @Override
+    public void handle(OutboxEventType type, ItemDto item) {
+        itemRepository.findById(item.getId())
+                .ifPresentOrElse(itemSearchEngine::index, () -> itemSearchEngine.remove(item.getId()));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(prefix = "shareit.search", name = "engine", havingValue = "sql", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<Item> search(String text, Pageable pageable) {
+        return itemRepository.searchAvailableItems(text, byRelevance(pageable));
+    }
+
+    @Override
+    public Slice<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return itemRepository.searchFreeItems(text, start, end, Status.BLOCKING, byRelevance(pageable));
+    }
+
+    private static Pageable byRelevance(Pageable pageable) {
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : Pageable.unpaged();
+    }
+}
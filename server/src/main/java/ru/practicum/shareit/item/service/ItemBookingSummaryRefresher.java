@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Пересчитывает сводки, у которых наступил момент смены последнего или следующего бронирования,
+ * и строит сводки для вещей, у которых их ещё нет. Сводку вещи, у которой создано бронирование или сменился
+ * его статус, пересчитывает по событию outbox.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryRefresher implements OutboxEventHandler<BookingChangedEvent> {
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    @Value("${shareit.booking-summary.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-delay:PT10S}")
+    public void refresh() {
+        int total = 0;
+        int refreshed;
+        do {
+            refreshed = itemBookingSummaryService.refreshDue(batchSize);
+            total += refreshed;
+        } while (refreshed == batchSize);
+        if (total > 0) {
+            log.debug("Пересчитаны сводки бронирований для {} вещей.", total);
+        }
+    }
+
+    @Override
+    public Set<OutboxEventType> getTypes() {
+        return EnumSet.of(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_STATUS_CHANGED);
+    }
+
+    @Override
+    public void handle(OutboxEventType type, BookingChangedEvent event) {
+        itemBookingSummaryService.refresh(List.of(event.getBooking().getItem().getId()));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    Map<Long, ItemBookingSummary> getByItemIds(Collection<Long> itemIds);
+
+    void refresh(Collection<Long> itemIds);
+
+    int refreshDue(int batchSize);
+}
@@ -1,24 +1,35 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     List<ItemDtoWithBooking> getAllByOwner(Long ownerId, Pageable pageable);
 
+    long countByOwner(Long ownerId);
+
     ItemDtoWithBooking getById(Long userId, Long id);
 
+    List<AvailabilitySlotDto> getAvailability(Long id, LocalDateTime from, LocalDateTime to);
+
     ItemDto create(ItemDto itemDto, Long ownerId);
 
+    List<BulkResultDto> createAll(List<ItemDto> itemDtos, Long ownerId);
+
     ItemDto update(ItemDto item, Long userId, Long id);
 
     void delete(Long id);
 
     List<ItemDto> search(String query, Pageable pageable);
 
+    List<ItemDto> searchFree(String query, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBoundsView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Map<Long, ItemBookingSummary> getByItemIds(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryRepository.findAllById(itemIds).stream()
+                .filter(summary -> summary.isFresh(now))
+                .collect(toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .collect(toList());
+        if (!missing.isEmpty()) {
+            // Устаревшие и ещё не построенные строки считаются на лету, сохранит их фоновая задача.
+            compute(missing, now).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        }
+
+        return summaries;
+    }
+
+    @Override
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        // Блокировка вещей упорядочивает пересчёт с созданием бронирований, которое блокирует вещь так же.
+        List<Long> lockedIds = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .map(Item::getId)
+                .collect(toList());
+        itemBookingSummaryRepository.saveAll(compute(lockedIds, LocalDateTime.now()));
+    }
+
+    @Override
+    public int refreshDue(int batchSize) {
+        List<Long> itemIds = new ArrayList<>(itemBookingSummaryRepository.findItemIdsToRefresh(LocalDateTime.now(),
+                PageRequest.of(0, batchSize)));
+        if (itemIds.size() < batchSize) {
+            itemIds.addAll(itemBookingSummaryRepository.findItemIdsWithoutSummary(
+                    PageRequest.of(0, batchSize - itemIds.size())));
+        }
+        refresh(itemIds);
+
+        return itemIds.size();
+    }
+
+    private Collection<ItemBookingSummary> compute(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new LinkedHashMap<>();
+        itemIds.forEach(itemId -> summaries.put(itemId, ItemBookingSummary.builder()
+                .itemId(itemId)
+                .build()));
+        for (BookingShortView booking : bookingRepository.findLastAndNextByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItemId());
+            if (BookingShortView.LAST.equals(booking.getKind())) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBookerId());
+            } else {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBookerId());
+            }
+        }
+        for (BookingBoundsView bounds : bookingRepository.findBoundsByItemIds(itemIds, now)) {
+            // Последнее бронирование сменится, когда закончится ближайшее из незавершённых,
+            // следующее — когда начнётся оно само.
+            LocalDateTime refreshAt = bounds.getFirstEnd();
+            if (bounds.getLastStart().isAfter(now) && bounds.getLastStart().isBefore(refreshAt)) {
+                refreshAt = bounds.getLastStart();
+            }
+            summaries.get(bounds.getItemId()).setRefreshAt(refreshAt);
+        }
+
+        return summaries.values();
+    }
+}
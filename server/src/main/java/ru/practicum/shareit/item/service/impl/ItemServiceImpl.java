@@ -1,30 +1,40 @@
 package ru.practicum.shareit.item.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.*;
 import ru.practicum.shareit.item.mapper.*;
 import ru.practicum.shareit.item.repository.*;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 import static ru.practicum.shareit.item.mapper.ItemMapper.*;
 import static ru.practicum.shareit.item.mapper.CommentMapper.*;
@@ -45,14 +55,38 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final OutboxPublisher outboxPublisher;
+
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.LISTING_COUNTS, key = "{'items', #ownerId}")
+    public long countByOwner(Long ownerId) {
+        return itemRepository.countByOwnerId(ownerId);
+    }
+
     @Override
     public List<ItemDtoWithBooking> getAllByOwner(Long userId, Pageable pageable) {
-        Page<Item> itemsDto = itemRepository.findByOwnerId(userId, pageable);
+        Slice<Item> items = itemRepository.findByOwnerId(userId, pageable);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getByItemIds(itemIds);
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(groupingBy(comment -> comment.getItem().getId()));
 
-        return itemsDto.stream()
+        return items.stream()
                 .map(ItemMapper::itemWithBookingToDto)
-                .map(this::createLastAndNextBooking)
-                .peek(itemDto -> itemDto.setComments(toDtoList(commentRepository.findAllByItemId(itemDto.getId()))))
+                .peek(itemDto -> setLastAndNextBooking(itemDto, summaries.get(itemDto.getId())))
+                .peek(itemDto -> itemDto.setComments(toDtoList(
+                        comments.getOrDefault(itemDto.getId(), Collections.emptyList()))))
                 .collect(toList());
     }
 
@@ -62,25 +96,61 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь с id = %s не найдена.", id)));
         ItemDtoWithBooking itemDtoWithBooking = itemWithBookingToDto(item);
         if (Objects.equals(item.getOwner().getId(), userId)) {
-            createLastAndNextBooking(itemDtoWithBooking);
+            setLastAndNextBooking(itemDtoWithBooking,
+                    itemBookingSummaryService.getByItemIds(List.of(item.getId())).get(item.getId()));
         }
         itemDtoWithBooking.setComments(CommentMapper.toDtoList(commentRepository.findAllByItemId(item.getId())));
 
         return itemDtoWithBooking;
     }
 
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше его окончания.");
+        }
+        itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Вещь с id = %s не найдена.", id)));
+
+        return itemAvailabilityIndex.getSlots(id, from, to);
+    }
+
     @Override
     public ItemDto create(ItemDto itemDto, Long ownerId) {
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id = %s не найден.", ownerId)));
-        Item item = dtoToItem(itemDto, owner);
-        if (itemDto.getRequestId() != null) {
-            item.setRequest(itemRequestRepository.findById(itemDto.getRequestId())
-                    .orElseThrow(() -> new NotFoundException(String.format("Запрос на вещь с id = %s не найден",
-                            itemDto.getRequestId()))));
+
+        ItemDto item = itemToDto(itemRepository.save(getValidItem(itemDto, owner)));
+        outboxPublisher.publish(OutboxEventType.ITEM_CREATED, item.getId(), item);
+
+        return item;
+    }
+
+    @Override
+    public List<BulkResultDto> createAll(List<ItemDto> itemDtos, Long ownerId) {
+        User owner = userRepository.findById(ownerId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id = %s не найден.", ownerId)));
+        List<BulkResultDto> results = new ArrayList<>(itemDtos.size());
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (ItemDto itemDto : itemDtos) {
+            try {
+                checkRequiredFields(itemDto);
+                items.add(getValidItem(itemDto, owner));
+                results.add(BulkResultDto.builder().build());
+            } catch (BadRequestException | NotFoundException e) {
+                results.add(BulkResultDto.builder().error(e.getMessage()).build());
+            }
+        }
+        Iterator<Item> saved = itemRepository.saveAll(items).iterator();
+        for (BulkResultDto result : results) {
+            if (result.getError() == null) {
+                ItemDto item = itemToDto(saved.next());
+                outboxPublisher.publish(OutboxEventType.ITEM_CREATED, item.getId(), item);
+                result.setId(item.getId());
+            }
         }
 
-        return itemToDto(itemRepository.save(item));
+        return results;
     }
 
     @Override
@@ -100,12 +170,16 @@ public class ItemServiceImpl implements ItemService {
             updatedItem.setAvailable(itemDto.getAvailable());
         }
 
-        return itemToDto(itemRepository.save(updatedItem));
+        ItemDto item = itemToDto(itemRepository.save(updatedItem));
+        outboxPublisher.publish(OutboxEventType.ITEM_UPDATED, itemId, item);
+
+        return item;
     }
 
     @Override
     public void delete(Long id) {
         itemRepository.deleteById(id);
+        outboxPublisher.publish(OutboxEventType.ITEM_DELETED, id, ItemDto.builder().id(id).build());
     }
 
     @Override
@@ -113,8 +187,24 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        Page<Item> items = itemRepository
-                .searchAvailableItems(text, pageable);
+        Slice<Item> items = itemSearchEngine.search(text, pageable);
+
+        return toDtoList(items.stream()
+                .collect(toList()));
+    }
+
+    @Override
+    public List<ItemDto> searchFree(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        if (start == null || end == null) {
+            throw new BadRequestException("Для поиска свободных вещей нужно указать начало и окончание периода.");
+        }
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("Начало периода должно быть раньше его окончания.");
+        }
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        Slice<Item> items = itemSearchEngine.searchFree(text, start, end, pageable);
 
         return toDtoList(items.stream()
                 .collect(toList()));
@@ -143,21 +233,31 @@ public class ItemServiceImpl implements ItemService {
         return commentToDto(commentSave);
     }
 
-    private ItemDtoWithBooking createLastAndNextBooking(ItemDtoWithBooking itemDtoWithBooking) {
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> lastBookings = bookingRepository
-                .findBookingsByItemIdAndEndIsBeforeOrderByEndDesc(itemDtoWithBooking.getId(), now);
-        List<Booking> nextBookings = bookingRepository
-                .findBookingsByItemIdAndStartIsAfterOrderByStartDesc(itemDtoWithBooking.getId(), now);
-        if (!lastBookings.isEmpty()) {
-            BookingItemDto lastBooking = bookingItemToDto(lastBookings.get(0));
-            itemDtoWithBooking.setLastBooking(lastBooking);
+    private Item getValidItem(ItemDto itemDto, User owner) {
+        Item item = dtoToItem(itemDto, owner);
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.findById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException(String.format("Запрос на вещь с id = %s не найден",
+                            itemDto.getRequestId()))));
         }
-        if (!nextBookings.isEmpty()) {
-            BookingItemDto nextBooking = bookingItemToDto(nextBookings.get(0));
-            itemDtoWithBooking.setNextBooking(nextBooking);
+
+        return item;
+    }
+
+    private void checkRequiredFields(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new BadRequestException("Название вещи не должно быть пустым.");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new BadRequestException("Описание вещи не должно быть пустым.");
         }
+        if (itemDto.getAvailable() == null) {
+            throw new BadRequestException("Не указана доступность вещи для бронирования.");
+        }
+    }
 
-        return itemDtoWithBooking;
+    private void setLastAndNextBooking(ItemDtoWithBooking itemDtoWithBooking, ItemBookingSummary summary) {
+        itemDtoWithBooking.setLastBooking(lastBookingToDto(summary));
+        itemDtoWithBooking.setNextBooking(nextBookingToDto(summary));
     }
-}
\ No newline at end of file
+}
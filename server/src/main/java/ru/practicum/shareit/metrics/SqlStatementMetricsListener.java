@@ -0,0 +1,42 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.BaseSessionEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class SqlStatementMetricsListener extends BaseSessionEventListener {
+    public static final String METRIC_NAME = "shareit.sql.statements";
+
+    private static final String NONE = "none";
+
+    private long statements;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        statements++;
+    }
+
+    @Override
+    public void end() {
+        DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("statements")
+                .tag("uri", uri())
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry)
+                .record(statements);
+    }
+
+    private static String uri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+
+        return pattern == null ? NONE : pattern.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.outbox;
+
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.util.Set;
+
+/**
+ * Обработчик событий outbox. Доставка «хотя бы один раз»: при повторной попытке событие получат все его
+ * обработчики, поэтому обработка должна быть идемпотентной.
+ *
+ * @param <T> тип полезной нагрузки, общий для всех {@link #getTypes() типов событий} обработчика
+ */
+public interface OutboxEventHandler<T> {
+    Set<OutboxEventType> getTypes();
+
+    void handle(OutboxEventType type, T payload);
+}
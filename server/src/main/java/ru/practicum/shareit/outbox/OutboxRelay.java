@@ -0,0 +1,253 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.OutboxDeadLetter;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.repository.OutboxDeadLetterRepository;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Доставляет события outbox обработчикам в фоновом потоке. Пачка событий сначала захватывается в короткой
+ * транзакции (их следующая попытка откладывается на {@code lease}), затем обработчики вызываются вне транзакции,
+ * и итог фиксируется второй транзакцией: доставленные события удаляются, упавшие откладываются с экспоненциальной
+ * задержкой, а исчерпавшие попытки переносятся в таблицу недоставленных. Если экземпляр упадёт между
+ * захватом и фиксацией, события вернутся в работу по истечении {@code lease}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    public static final String METRIC_NAME = "shareit.outbox.events";
+
+    public static final String LAG_METRIC_NAME = "shareit.outbox.lag";
+
+    public static final String PENDING_METRIC_NAME = "shareit.outbox.pending";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<OutboxEventType, List<OutboxEventHandler<Object>>> handlers =
+            new EnumMap<>(OutboxEventType.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration retryDelay;
+
+    private final Duration maxRetryDelay;
+
+    private final Duration lease;
+
+    @SuppressWarnings("unchecked")
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxDeadLetterRepository outboxDeadLetterRepository,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       List<OutboxEventHandler<?>> handlers,
+                       @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.retry-delay:PT1S}") Duration retryDelay,
+                       @Value("${shareit.outbox.max-retry-delay:PT10M}") Duration maxRetryDelay,
+                       @Value("${shareit.outbox.lease:PT1M}") Duration lease) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.lease = lease;
+        handlers.forEach(handler -> handler.getTypes().forEach(type -> this.handlers
+                .computeIfAbsent(type, t -> new ArrayList<>())
+                .add((OutboxEventHandler<Object>) handler)));
+        Gauge.builder(PENDING_METRIC_NAME, pending, AtomicLong::get)
+                .description("События outbox, ожидающие доставки")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запускает доставку в фоновом потоке, если она ещё не запланирована.
+     */
+    public void wakeUp() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::relayAll);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Подбирает события, для которых пропущено пробуждение после фиксации, и повторные попытки.
+     */
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-delay:PT1S}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Доставляет одну пачку событий и возвращает её размер.
+     */
+    public int relay() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxEventRepository.findDue(now, PageRequest.of(0, batchSize));
+            due.forEach(event -> event.setNextAttemptAt(now.plus(lease)));
+            return due;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> delivered = new ArrayList<>(events.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            try {
+                dispatch(event);
+                delivered.add(event);
+            } catch (Exception e) {
+                log.warn("Не удалось доставить событие outbox с id {} ({}), попытка {}.", event.getId(),
+                        event.getType(), event.getAttempts() + 1, e);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(String.valueOf(e)));
+                failed.add(event);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> complete(delivered, failed));
+        LocalDateTime deliveredAt = LocalDateTime.now();
+        delivered.forEach(event -> {
+            count(event, "delivered");
+            Timer.builder(LAG_METRIC_NAME)
+                    .description("Время от записи события в outbox до его доставки")
+                    .tag("type", event.getType().name())
+                    .register(meterRegistry)
+                    .record(Duration.between(event.getCreated(), deliveredAt));
+        });
+
+        return events.size();
+    }
+
+    private void relayAll() {
+        // Флаг сбрасывается до выборки: пробуждение во время доставки запланирует ещё один проход.
+        scheduled.set(false);
+        try {
+            int relayed;
+            do {
+                relayed = relay();
+            } while (relayed == batchSize);
+            pending.set(outboxEventRepository.count());
+        } catch (RuntimeException e) {
+            log.error("Ошибка доставки событий outbox.", e);
+        }
+    }
+
+    private void dispatch(OutboxEvent event) throws IOException {
+        Object payload = objectMapper.readValue(event.getPayload(), event.getType().getPayloadType());
+        for (OutboxEventHandler<Object> handler : handlers.getOrDefault(event.getType(), List.of())) {
+            handler.handle(event.getType(), payload);
+        }
+    }
+
+    private void complete(List<OutboxEvent> delivered, List<OutboxEvent> failed) {
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(delivered.stream()
+                    .map(OutboxEvent::getId)
+                    .collect(toList()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : failed) {
+            if (event.getAttempts() >= maxAttempts) {
+                log.error("Событие outbox с id {} ({}) перенесено в недоставленные после {} попыток.",
+                        event.getId(), event.getType(), event.getAttempts());
+                outboxDeadLetterRepository.save(toDeadLetter(event, now));
+                outboxEventRepository.deleteById(event.getId());
+                count(event, "dead_lettered");
+            } else {
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                outboxEventRepository.save(event);
+                count(event, "retried");
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private void count(OutboxEvent event, String outcome) {
+        Counter.builder(METRIC_NAME)
+                .tag("type", event.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static OutboxDeadLetter toDeadLetter(OutboxEvent event, LocalDateTime failedAt) {
+        return OutboxDeadLetter.builder()
+                .id(event.getId())
+                .type(event.getType())
+                .aggregateId(event.getAggregateId())
+                .payload(event.getPayload())
+                .created(event.getCreated())
+                .attempts(event.getAttempts())
+                .lastError(event.getLastError())
+                .failedAt(failedAt)
+                .build();
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox.model;
+
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+public enum OutboxEventType {
+    BOOKING_CREATED(BookingChangedEvent.class),
+    BOOKING_STATUS_CHANGED(BookingChangedEvent.class),
+    ITEM_CREATED(ItemDto.class),
+    ITEM_UPDATED(ItemDto.class),
+    ITEM_DELETED(ItemDto.class);
+
+    private final Class<?> payloadType;
+
+    OutboxEventType(Class<?> payloadType) {
+        this.payloadType = payloadType;
+    }
+
+    public Class<?> getPayloadType() {
+        return payloadType;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Выбирает события, готовые к доставке. Другой экземпляр ждёт фиксации захвата и после неё уже не видит
+     * эти строки: их следующая попытка перенесена на срок аренды.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.nextAttemptAt <= ?1 ORDER BY e.id")
+    List<OutboxEvent> findDue(LocalDateTime now, Pageable pageable);
+}
@@ -1,14 +1,17 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    Page<ItemRequest> findAllByRequesterIdIsNot(Long requesterId, Pageable page);
+    @EntityGraph(attributePaths = "requester")
+    Slice<ItemRequest> findAllByRequesterIdIsNot(Long requesterId, Pageable page);
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterId(Long requesterId);
 }
\ No newline at end of file
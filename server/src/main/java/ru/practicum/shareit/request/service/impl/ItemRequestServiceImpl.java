@@ -1,12 +1,13 @@
 package ru.practicum.shareit.request.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
@@ -15,7 +16,9 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.item.mapper.ItemMapper.*;
@@ -47,34 +50,40 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Запрос с id = %s пользователя " +
                         "с id = %s не найден.", requestId, userId)));
+        userService.checkExists(userId);
 
-        return requestToOut(itemRequest, userId);
+        return itemRequestToDtoOut(itemRequest, toDtoList(itemRepository.findByRequestId(requestId)));
     }
 
     @Override
     public List<ItemRequestDtoOut> getAll(Long userId) {
-        userService.getById(userId);
+        userService.checkExists(userId);
 
-        return itemRequestRepository.findAllByRequesterId(userId).stream()
-                .map(a -> requestToOut(a, userId))
-                .collect(Collectors.toList());
+        return requestsToOut(itemRequestRepository.findAllByRequesterId(userId));
     }
 
     @Override
     public List<ItemRequestDtoOut> getAllFromOtherUser(Long userId, Pageable pageable) {
-        userService.getById(userId);
-        Page<ItemRequest> requests = itemRequestRepository
+        userService.checkExists(userId);
+        Slice<ItemRequest> requests = itemRequestRepository
                 .findAllByRequesterIdIsNot(userId, pageable);
 
-        return requests.stream()
-                .map(a -> requestToOut(a, userId))
-                .collect(Collectors.toList());
+        return requestsToOut(requests.getContent());
     }
 
-    private ItemRequestDtoOut requestToOut(ItemRequest itemRequest, Long userId) {
-        userService.getById(userId);
-        List<ItemDto> items = toDtoList(itemRepository.findByRequestId(itemRequest.getId()));
+    private List<ItemRequestDtoOut> requestsToOut(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, List<ItemDto>> items = itemRepository.findByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::itemToDto, Collectors.toList())));
 
-        return itemRequestToDtoOut(itemRequest, items);
+        return requests.stream()
+                .map(request -> itemRequestToDtoOut(request,
+                        items.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.model.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USER_EXISTS, key = "#p0", unless = "!#result")
+    boolean existsById(Long id);
 }
\ No newline at end of file
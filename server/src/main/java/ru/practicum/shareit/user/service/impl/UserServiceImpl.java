@@ -1,8 +1,12 @@
 package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -11,6 +15,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.user.mapper.UserMapper.*;
@@ -21,6 +26,8 @@ import static ru.practicum.shareit.user.mapper.UserMapper.*;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
 
+    private final CacheManager cacheManager;
+
     @Override
     public List<UserDto> getAll() {
         return userRepository.findAll().stream()
@@ -29,6 +36,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto getById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id = %s не найден.", id)));
@@ -36,6 +44,13 @@ public class UserServiceImpl implements UserService {
         return userToDto(user);
     }
 
+    @Override
+    public void checkExists(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new NotFoundException(String.format("Пользователь с id = %s не найден.", id));
+        }
+    }
+
     @Override
     public UserDto create(UserDto userDto) {
         User user = dtoToUser(userDto);
@@ -53,11 +68,24 @@ public class UserServiceImpl implements UserService {
         if (userDto.getEmail() != null) {
             updatedUser.setEmail(userDto.getEmail());
         }
-        return userToDto(userRepository.save(updatedUser));
+        UserDto user = userToDto(userRepository.save(updatedUser));
+        evictAfterCommit(id);
+
+        return user;
     }
 
     @Override
     public void delete(Long id) {
         userRepository.deleteById(id);
+        evictAfterCommit(id);
+    }
+
+    /**
+     * Вытеснение до фиксации позволило бы параллельному чтению вернуть в кеш старую строку до истечения срока.
+     */
+    private void evictAfterCommit(Long id) {
+        for (String cacheName : List.of(CacheConfig.USERS, CacheConfig.USER_EXISTS)) {
+            new TransactionAwareCacheDecorator(Objects.requireNonNull(cacheManager.getCache(cacheName))).evict(id);
+        }
     }
 }
\ No newline at end of file
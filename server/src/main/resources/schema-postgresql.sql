@@ -0,0 +1,20 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (LOWER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (LOWER(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_booker_start ON bookings (booker_id, start_date DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_rejected_booker_start ON bookings (booker_id, start_date DESC)
+    WHERE status = 'REJECTED';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_item_start ON bookings (item_id, start_date DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_rejected_item_start ON bookings (item_id, start_date DESC)
+    WHERE status = 'REJECTED';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_blocking_item_start_end ON bookings (item_id, start_date, end_date)
+    WHERE status IN ('WAITING', 'APPROVED');
@@ -1,5 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-  id            BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id            BIGINT                                  NOT NULL,
   name          VARCHAR(255)                            NOT NULL,
   email         VARCHAR(512)                            NOT NULL,
   CONSTRAINT pk_user PRIMARY KEY (id),
@@ -7,7 +19,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id          BIGINT                                  NOT NULL,
     name        VARCHAR(255),
     description VARCHAR(3000),
     owner_id    BIGINT                                  NOT NULL,
@@ -19,12 +31,13 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id          BIGINT                                  NOT NULL,
     start_date  TIMESTAMP WITH TIME ZONE                NOT NULL,
     end_date    TIMESTAMP WITH TIME ZONE                NOT NULL,
     item_id     BIGINT                                  NOT NULL,
     booker_id   BIGINT                                  NOT NULL,
     status      VARCHAR(100),
+    version     BIGINT                                  DEFAULT 0 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT FK_BOOKING_ON_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id),
     CONSTRAINT FK_BOOKING_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id),
@@ -32,7 +45,7 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id          BIGINT                                  NOT NULL,
     text        VARCHAR(3000)                           NOT NULL,
     item_id     BIGINT,
     author_id   BIGINT,
@@ -43,10 +56,67 @@ CREATE TABLE IF NOT EXISTS comments (
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id             BIGINT                                  NOT NULL,
     description    VARCHAR(3000)                           NOT NULL,
     requester_id   BIGINT                                  NOT NULL,
     created        TIMESTAMP WITH TIME ZONE                NOT NULL,
     CONSTRAINT pk_request PRIMARY KEY (id),
     CONSTRAINT FK_ITEM_REQUEST_ON_REQUESTER FOREIGN KEY (requester_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id         BIGINT                                  NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    refresh_at      TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT FK_SUMMARY_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              BIGINT                                  NOT NULL,
+    type            VARCHAR(64)                             NOT NULL,
+    aggregate_id    BIGINT                                  NOT NULL,
+    payload         TEXT                                    NOT NULL,
+    created         TIMESTAMP WITH TIME ZONE                NOT NULL,
+    attempts        INTEGER                                 DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE                NOT NULL,
+    last_error      VARCHAR(1000),
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    id              BIGINT                                  NOT NULL,
+    type            VARCHAR(64)                             NOT NULL,
+    aggregate_id    BIGINT                                  NOT NULL,
+    payload         TEXT                                    NOT NULL,
+    created         TIMESTAMP WITH TIME ZONE                NOT NULL,
+    attempts        INTEGER                                 NOT NULL,
+    last_error      VARCHAR(1000),
+    failed_at       TIMESTAMP WITH TIME ZONE                NOT NULL,
+    CONSTRAINT pk_outbox_dead_letter PRIMARY KEY (id)
+);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_end ON bookings (item_id, start_date, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date, id);
+
+DROP INDEX IF EXISTS idx_bookings_start_id;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings (item_id, start_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_refresh_at ON item_booking_summary (refresh_at);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_next_attempt_at ON outbox_events (next_attempt_at, id);
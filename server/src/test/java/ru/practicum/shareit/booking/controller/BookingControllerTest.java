@@ -7,22 +7,37 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingEventBus;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.bulk.BulkImporter;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,12 +45,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(BookingController.class)
 @AutoConfigureMockMvc
+@Import({BulkImporter.class, BookingEventBus.class})
 class BookingControllerTest {
     private static final String USER_ID = "X-Sharer-User-Id";
 
     @MockBean
     BookingService bookingService;
 
+    @MockBean
+    UserService userService;
+
+    @Autowired
+    BookingEventBus bookingEventBus;
+
     @Autowired
     ObjectMapper mapper;
 
@@ -76,10 +98,10 @@ class BookingControllerTest {
 
         bookingDto = BookingDto.builder()
                 .id(1L)
-                .item(item)
+                .item(ItemShortDto.builder().id(item.getId()).name(item.getName()).build())
                 .start(LocalDateTime.now().plusDays(7))
                 .end(LocalDateTime.now().plusDays(30))
-                .booker(booker)
+                .booker(UserShortDto.builder().id(booker.getId()).name(booker.getName()).build())
                 .status(Status.WAITING)
                 .build();
 
@@ -109,6 +131,80 @@ class BookingControllerTest {
                 .save(anyLong(), any(BookingRequestDto.class));
     }
 
+    @Test
+    void streamTest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header(USER_ID, owner.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        bookingEventBus.handle(OutboxEventType.BOOKING_CREATED, new BookingChangedEvent(bookingDto, owner.getId()));
+
+        String content = awaitContent(result, "\"status\":\"WAITING\"");
+        assertThat(content, containsString("event:booking"));
+        assertThat(content, containsString("id:" + bookingDto.getId()));
+        verify(userService).checkExists(owner.getId());
+    }
+
+    @Test
+    void streamUserNotFoundTest() throws Exception {
+        doThrow(new NotFoundException("Пользователь с id = 99 не найден."))
+                .when(userService).checkExists(99L);
+
+        mockMvc.perform(get("/bookings/stream")
+                        .header(USER_ID, 99L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createAllTest() throws Exception {
+        when(bookingService.saveAll(anyLong(), anyList()))
+                .thenReturn(List.of(BulkResultDto.builder().id(bookingDto.getId()).build()));
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .header(USER_ID, "2")
+                        .content(mapper.writeValueAsString(bookingRequestDto) + "\n{\"itemId\":")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].id").value(bookingDto.getId()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").exists());
+
+        verify(bookingService, times(1))
+                .saveAll(anyLong(), anyList());
+    }
+
+    @Test
+    void createAllSkipsUnmappableElementTest() throws Exception {
+        when(bookingService.saveAll(anyLong(), anyList()))
+                .thenReturn(List.of(BulkResultDto.builder().id(bookingDto.getId()).build()));
+        String element = mapper.writeValueAsString(bookingRequestDto);
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .header(USER_ID, "2")
+                        .content("[" + element + ",{\"itemId\":1,\"start\":\"завтра\",\"extra\":{\"a\":[1]}}," +
+                                element + "]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(bookingDto.getId()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").exists())
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].id").value(bookingDto.getId()));
+
+        verify(bookingService, times(2))
+                .saveAll(anyLong(), anyList());
+    }
+
     @Test
     void approveTest() throws Exception {
         when(bookingService.approve(anyLong(), anyLong(), anyBoolean()))
@@ -148,7 +244,7 @@ class BookingControllerTest {
 
     @Test
     void getByBookerIdTest() throws Exception {
-        when(bookingService.getAllByBookerId(anyLong(), anyString(), any(Pageable.class)))
+        when(bookingService.getAllByBookerId(anyLong(), anyString(), isNull(), any(Pageable.class)))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings")
@@ -163,12 +259,12 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
 
         verify(bookingService, times(1))
-                .getAllByBookerId(anyLong(), anyString(), any(Pageable.class));
+                .getAllByBookerId(anyLong(), anyString(), isNull(), any(Pageable.class));
     }
 
     @Test
     void getByOwnerIdTest() throws Exception {
-        when(bookingService.getAllByOwnerId(anyLong(), anyString(), any(Pageable.class)))
+        when(bookingService.getAllByOwnerId(anyLong(), anyString(), isNull(), any(Pageable.class)))
                 .thenReturn(List.of(bookingDto));
 
         mockMvc.perform(get("/bookings/owner")
@@ -184,6 +280,70 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
 
         verify(bookingService, times(1))
-                .getAllByOwnerId(anyLong(), anyString(), any(Pageable.class));
+                .getAllByOwnerId(anyLong(), anyString(), isNull(), any(Pageable.class));
+        verify(bookingService, never()).countByOwnerId(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void getByOwnerIdWithTotalTest() throws Exception {
+        when(bookingService.getAllByOwnerId(anyLong(), anyString(), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(bookingDto));
+        when(bookingService.countByOwnerId(owner.getId(), "FUTURE+WAITING", 1L))
+                .thenReturn(12L);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID, owner.getId())
+                        .param("state", "FUTURE+WAITING")
+                        .param("itemId", "1")
+                        .param("total", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "12"))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+    }
+
+    @Test
+    void getByBookerIdWithCursorTest() throws Exception {
+        BookingCursor cursor = new BookingCursor(bookingDto.getStart(), bookingDto.getId());
+        when(bookingService.getAllByBookerId(booker.getId(), "ALL", null, cursor.encode(), 1))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID, booker.getId())
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", cursor.encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", cursor.encode()))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))));
+
+        verify(bookingService, never()).getAllByBookerId(anyLong(), anyString(), isNull(), any(Pageable.class));
+    }
+
+    @Test
+    void getByOwnerIdLastCursorPageTest() throws Exception {
+        when(bookingService.getAllByOwnerId(owner.getId(), "ALL", null, "", 5))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID, owner.getId())
+                        .param("size", "5")
+                        .param("cursor", "")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        for (int i = 0; i < 50; i++) {
+            String content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(100);
+        }
+
+        throw new AssertionError(String.format("Поток не получил событие '%s'.", expected));
     }
-}
\ No newline at end of file
+}
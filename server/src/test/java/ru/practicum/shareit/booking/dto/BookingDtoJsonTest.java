@@ -6,7 +6,9 @@ import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -42,10 +44,10 @@ class BookingDtoJsonTest {
 
         BookingDto bookingDto = BookingDto.builder()
                 .id(1L)
-                .item(item)
+                .item(ItemShortDto.builder().id(item.getId()).name(item.getName()).build())
                 .start(LocalDateTime.now().plusDays(7))
                 .end(LocalDateTime.now().plusDays(30))
-                .booker(booker)
+                .booker(UserShortDto.builder().id(booker.getId()).name(booker.getName()).build())
                 .status(Status.WAITING)
                 .build();
 
@@ -54,6 +56,9 @@ class BookingDtoJsonTest {
         assertThat(result).hasJsonPath("$.id");
         assertThat(result).extractingJsonPathNumberValue("$.id").isEqualTo(1);
         assertThat(result).extractingJsonPathValue("$.item.name").isEqualTo("Apple MacBook Pro");
+        assertThat(result).doesNotHaveJsonPath("$.item.owner");
+        assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo(2);
+        assertThat(result).doesNotHaveJsonPath("$.booker.email");
         assertThat(result).extractingJsonPathStringValue("$.status").isEqualTo("WAITING");
     }
 }
\ No newline at end of file
@@ -4,9 +4,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingBoundsView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -14,7 +22,10 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -45,6 +56,7 @@ class BookingRepositoryTest {
 
     @BeforeEach
     void init() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         owner = userRepository.save(User.builder()
                 .id(1L)
                 .name("Вадим Фаустов")
@@ -67,8 +79,8 @@ class BookingRepositoryTest {
 
         booking = bookingRepository.save(Booking.builder()
                 .id(1L)
-                .start(LocalDateTime.now().plusDays(2))
-                .end(LocalDateTime.now().plusDays(10))
+                .start(now.plusDays(2))
+                .end(now.plusDays(10))
                 .item(item)
                 .booker(booker)
                 .status(Status.WAITING)
@@ -76,8 +88,8 @@ class BookingRepositoryTest {
 
         lastBooking = bookingRepository.save(Booking.builder()
                 .id(2L)
-                .start(LocalDateTime.now().minusDays(15))
-                .end(LocalDateTime.now().minusDays(5))
+                .start(now.minusDays(15))
+                .end(now.minusDays(5))
                 .item(item)
                 .booker(booker)
                 .status(Status.APPROVED)
@@ -85,8 +97,8 @@ class BookingRepositoryTest {
 
         nextBooking = bookingRepository.save(Booking.builder()
                 .id(3L)
-                .start(LocalDateTime.now().plusDays(14))
-                .end(LocalDateTime.now().plusDays(30))
+                .start(now.plusDays(14))
+                .end(now.plusDays(30))
                 .item(item)
                 .booker(booker)
                 .status(Status.APPROVED)
@@ -94,113 +106,229 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdOrderByStartDescTest() {
-        List<Booking> actual = List.of(nextBooking, booking, lastBooking);
-        Page<Booking> result = bookingRepository.findAllByBookerIdOrderByStartDesc(booker.getId(), Pageable.unpaged());
+    void findAllByFilterBookerTest() {
+        List<Long> actual = List.of(nextBooking.getId(), booking.getId(), lastBooking.getId());
+        Slice<BookingDto> result = bookingRepository.findAllByFilter(filter(BookingState.ALL)
+                .bookerId(booker.getId())
+                .build(), Pageable.unpaged());
 
         assertThat(result, hasItems());
-        assertThat(result.toList(), equalTo(actual));
+        assertThat(result.map(BookingDto::getId).toList(), equalTo(actual));
+        assertThat(result.toList().get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(result.toList().get(0).getBooker().getId(), equalTo(booker.getId()));
+        assertThat(result.toList().get(0).getStatus(), equalTo(Status.APPROVED));
     }
 
     @Test
-    void findAllByStartBeforeAndEndAfterAndBookerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByStartBeforeAndEndAfterAndBookerIdOrderByStartDesc(
-                LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(20), booker.getId(), Pageable.unpaged());
+    void findAllByFilterCurrentTest() {
+        Slice<BookingDto> result = bookingRepository.findAllByFilter(filter(BookingState.CURRENT)
+                .bookerId(booker.getId())
+                .now(LocalDateTime.now().plusDays(20))
+                .build(), Pageable.unpaged());
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(nextBooking));
+        assertThat(result.map(BookingDto::getId).toList(), equalTo(List.of(nextBooking.getId())));
     }
 
     @Test
-    void findAllByEndBeforeAndBookerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByEndBeforeAndBookerIdOrderByStartDesc(LocalDateTime.now(),
-                booker.getId(), Pageable.unpaged());
+    void findAllByFilterPastTest() {
+        Slice<BookingDto> result = bookingRepository.findAllByFilter(filter(BookingState.PAST)
+                .bookerId(booker.getId())
+                .build(), Pageable.unpaged());
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(lastBooking));
+        assertThat(result.map(BookingDto::getId).toList(), equalTo(List.of(lastBooking.getId())));
     }
 
     @Test
-    void findAllByStartAfterAndBookerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByStartAfterAndBookerIdOrderByStartDesc(LocalDateTime.now(),
-                booker.getId(), Pageable.unpaged());
+    void findAllByFilterFutureTest() {
+        Slice<BookingDto> result = bookingRepository.findAllByFilter(filter(BookingState.FUTURE)
+                .ownerId(owner.getId())
+                .build(), Pageable.unpaged());
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(nextBooking));
+        assertThat(result.map(BookingDto::getId).toList(), equalTo(List.of(nextBooking.getId(), booking.getId())));
     }
 
     @Test
-    void findAllByStatusAndBookerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByStatusAndBookerIdOrderByStartDesc(Status.WAITING,
-                booker.getId(), Pageable.unpaged());
-
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(booking));
+    void findAllByFilterStatusTest() {
+        assertThat(bookingRepository.findAllByFilter(filter(BookingState.WAITING)
+                .ownerId(owner.getId())
+                .build(), Pageable.unpaged()).map(BookingDto::getId).toList(), equalTo(List.of(booking.getId())));
+        assertThat(bookingRepository.findAllByFilter(filter(BookingState.REJECTED)
+                .ownerId(owner.getId())
+                .build(), Pageable.unpaged()), emptyIterable());
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDescTest() {
-        List<Booking> actual = List.of(nextBooking, booking, lastBooking);
-        Page<Booking> result = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(owner.getId(),
-                Pageable.unpaged());
+    void findAllByFilterCombinedStatesTest() {
+        Slice<BookingDto> result = bookingRepository.findAllByFilter(filter(BookingState.PAST, BookingState.WAITING)
+                .bookerId(booker.getId())
+                .build(), Pageable.unpaged());
 
-        assertThat(result, hasItems());
-        assertThat(result.toList(), equalTo(actual));
+        assertThat(result.map(BookingDto::getId).toList(), equalTo(List.of(booking.getId(), lastBooking.getId())));
     }
 
     @Test
-    void findAllByStartBeforeAndEndAfterAndItemOwnerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByStartBeforeAndEndAfterAndItemOwnerIdOrderByStartDesc(
-                LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(20), owner.getId(), Pageable.unpaged());
+    void findAllByFilterItemIdTest() {
+        Item otherItem = itemRepository.save(Item.builder()
+                .id(2L)
+                .name("Apple iPad Pro")
+                .description("Планшет с чипом M2")
+                .owner(owner)
+                .available(true)
+                .build());
+        Booking otherBooking = bookingRepository.save(Booking.builder()
+                .id(4L)
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .item(otherItem)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(nextBooking));
+        assertThat(bookingRepository.findAllByFilter(filter(BookingState.ALL)
+                        .ownerId(owner.getId())
+                        .itemId(otherItem.getId())
+                        .build(), Pageable.unpaged()).map(BookingDto::getId).toList(),
+                equalTo(List.of(otherBooking.getId())));
+        assertThat(bookingRepository.findAllByFilter(filter(BookingState.WAITING)
+                        .bookerId(booker.getId())
+                        .itemId(item.getId())
+                        .build(), Pageable.unpaged()).map(BookingDto::getId).toList(),
+                equalTo(List.of(booking.getId())));
     }
 
     @Test
-    void findAllByEndBeforeAndItemOwnerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByEndBeforeAndItemOwnerIdOrderByStartDesc(LocalDateTime.now(),
-                owner.getId(), Pageable.unpaged());
+    void findAllByFilterPagedTest() {
+        Slice<BookingDto> result = bookingRepository.findAllByFilter(filter(BookingState.ALL)
+                .ownerId(owner.getId())
+                .build(), PageRequest.of(0, 2));
+
+        assertThat(result.map(BookingDto::getId).toList(), equalTo(List.of(nextBooking.getId(), booking.getId())));
+        assertThat(result.hasNext(), equalTo(true));
+        assertThat(bookingRepository.findAllByFilter(filter(BookingState.ALL)
+                .ownerId(owner.getId())
+                .build(), result.nextPageable()).map(BookingDto::getId).toList(), equalTo(List.of(lastBooking.getId())));
+    }
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(lastBooking));
+    @Test
+    void countByFilterTest() {
+        assertThat(bookingRepository.countByFilter(filter(BookingState.ALL)
+                .ownerId(owner.getId())
+                .build()), equalTo(3L));
+        assertThat(bookingRepository.countByFilter(filter(BookingState.FUTURE, BookingState.WAITING)
+                .bookerId(booker.getId())
+                .build()), equalTo(2L));
+        assertThat(bookingRepository.countByFilter(filter(BookingState.ALL)
+                .ownerId(booker.getId())
+                .build()), equalTo(0L));
     }
 
     @Test
-    void findAllByStartAfterAndItemOwnerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByStartAfterAndItemOwnerIdOrderByStartDesc(LocalDateTime.now(),
-                owner.getId(), Pageable.unpaged());
+    void updateStatusTest() {
+        long version = bookingRepository.findById(booking.getId()).orElseThrow().getVersion();
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(nextBooking));
+        assertThat(bookingRepository.updateStatus(booking.getId(), Status.WAITING, Status.APPROVED), equalTo(1));
+        assertThat(bookingRepository.updateStatus(booking.getId(), Status.WAITING, Status.REJECTED), equalTo(0));
+        assertThat(bookingRepository.findStatusById(booking.getId()).orElseThrow(), equalTo(Status.APPROVED));
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getVersion(), equalTo(version + 1));
     }
 
     @Test
-    void findAllByStatusAndItemOwnerIdOrderByStartDescTest() {
-        Page<Booking> result = bookingRepository.findAllByStatusAndItemOwnerIdOrderByStartDesc(Status.APPROVED,
-                owner.getId(), Pageable.unpaged());
+    void findBoundsByItemIdsTest() {
+        List<BookingBoundsView> bounds = bookingRepository.findBoundsByItemIds(List.of(item.getId()),
+                LocalDateTime.now());
 
-        assertThat(result, hasItems());
-        assertThat(result.toList().get(0), equalTo(nextBooking));
+        assertThat(bounds.size(), equalTo(1));
+        assertThat(bounds.get(0).getItemId(), equalTo(item.getId()));
+        assertThat(bounds.get(0).getFirstEnd(), equalTo(booking.getEnd()));
+        assertThat(bounds.get(0).getLastStart(), equalTo(nextBooking.getStart()));
     }
 
     @Test
-    void findBookingsByItemIdAndEndIsBeforeOrderByEndDescTest() {
-        List<Booking> bookings = bookingRepository.findBookingsByItemIdAndEndIsBeforeOrderByEndDesc(item.getId(),
-                LocalDateTime.now());
+    void findIntervalsByItemIdTest() {
+        List<BookingIntervalView> intervals = bookingRepository.findIntervalsByItemId(item.getId(),
+                List.of(Status.APPROVED));
+
+        assertThat(intervals.size(), equalTo(2));
+        assertThat(intervals.get(0).getId(), equalTo(lastBooking.getId()));
+        assertThat(intervals.get(0).getStart(), equalTo(lastBooking.getStart()));
+        assertThat(intervals.get(0).getEnd(), equalTo(lastBooking.getEnd()));
+        assertThat(intervals.get(1).getId(), equalTo(nextBooking.getId()));
+    }
 
-        assertThat(bookings, hasItems());
-        assertThat(bookings.size(), equalTo(1));
-        assertThat(bookings.get(0), equalTo(lastBooking));
+    @Test
+    void findEndsByItemIdStartingBeforeTest() {
+        List<Status> statuses = List.of(Status.WAITING, Status.APPROVED);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(bookingRepository.findEndsByItemIdStartingBefore(item.getId(), statuses, now.plusDays(20),
+                PageRequest.of(0, 1)), equalTo(List.of(nextBooking.getEnd())));
+        assertThat(bookingRepository.findEndsByItemIdStartingBefore(item.getId(), statuses, now.plusDays(5),
+                PageRequest.of(0, 1)), equalTo(List.of(booking.getEnd())));
+        assertThat(bookingRepository.findEndsByItemIdStartingBefore(item.getId(), List.of(Status.APPROVED),
+                now.plusDays(5), PageRequest.of(0, 1)), equalTo(List.of(lastBooking.getEnd())));
+        assertThat(bookingRepository.findEndsByItemIdStartingBefore(item.getId(), statuses, now.minusDays(20),
+                PageRequest.of(0, 1)), empty());
     }
 
     @Test
-    void findBookingsByItemIdAndStartIsAfterOrderByStartDescTest() {
-        List<Booking> bookings = bookingRepository.findBookingsByItemIdAndStartIsAfterOrderByStartDesc(item.getId(),
+    void findLastAndNextByItemIdsTest() {
+        List<BookingShortView> bookings = bookingRepository.findLastAndNextByItemIds(List.of(item.getId()),
                 LocalDateTime.now());
 
-        assertThat(bookings, hasItems());
         assertThat(bookings.size(), equalTo(2));
-        assertThat(bookings.get(0), equalTo(nextBooking));
+        BookingShortView last = bookings.stream()
+                .filter(b -> BookingShortView.LAST.equals(b.getKind()))
+                .findFirst()
+                .orElseThrow();
+        BookingShortView next = bookings.stream()
+                .filter(b -> BookingShortView.NEXT.equals(b.getKind()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(last.getId(), equalTo(lastBooking.getId()));
+        assertThat(last.getItemId(), equalTo(item.getId()));
+        assertThat(last.getBookerId(), equalTo(booker.getId()));
+        assertThat(next.getId(), equalTo(nextBooking.getId()));
+    }
+
+    @Test
+    void findAllByFilterCursorTest() {
+        BookingFilter filter = filter(BookingState.ALL)
+                .bookerId(booker.getId())
+                .build();
+        List<BookingDto> firstPage = bookingRepository.findAllByFilter(filter, null, 2);
+        BookingCursor cursor = new BookingCursor(firstPage.get(1).getStart().truncatedTo(ChronoUnit.MICROS),
+                firstPage.get(1).getId());
+        List<BookingDto> secondPage = bookingRepository.findAllByFilter(filter, cursor, 2);
+
+        assertThat(ids(firstPage), equalTo(List.of(nextBooking.getId(), booking.getId())));
+        assertThat(ids(secondPage), equalTo(List.of(lastBooking.getId())));
+    }
+
+    @Test
+    void findAllByFilterCursorWithStateTest() {
+        BookingCursor cursor = new BookingCursor(nextBooking.getStart().truncatedTo(ChronoUnit.MICROS),
+                nextBooking.getId());
+
+        assertThat(ids(bookingRepository.findAllByFilter(filter(BookingState.FUTURE)
+                .ownerId(owner.getId())
+                .build(), cursor, 10)), equalTo(List.of(booking.getId())));
+        assertThat(ids(bookingRepository.findAllByFilter(filter(BookingState.FUTURE, BookingState.PAST)
+                .ownerId(owner.getId())
+                .build(), cursor, 10)), equalTo(List.of(booking.getId(), lastBooking.getId())));
+        assertThat(bookingRepository.findAllByFilter(filter(BookingState.ALL)
+                .ownerId(booker.getId())
+                .build(), null, 10), empty());
+    }
+
+    private static BookingFilter.BookingFilterBuilder filter(BookingState... states) {
+        return BookingFilter.builder()
+                .states(EnumSet.copyOf(List.of(states)))
+                .now(LocalDateTime.now());
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -2,33 +2,46 @@ package ru.practicum.shareit.booking.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFilter;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.IncorrectStateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.mapper.BookingMapper.bookingToDto;
 import static ru.practicum.shareit.user.mapper.UserMapper.userToDto;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -47,6 +60,9 @@ class BookingServiceTest {
     @MockBean
     ItemRepository itemRepository;
 
+    @MockBean
+    OutboxPublisher outboxPublisher;
+
     Item item;
 
     User booker;
@@ -106,14 +122,15 @@ class BookingServiceTest {
                 .itemId(nextBooking.getItem().getId())
                 .build();
 
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userService);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userService,
+                outboxPublisher);
     }
 
     @Test
     void saveTest() {
         when(userService.getById(anyLong()))
                 .thenReturn(userToDto(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.save(any()))
                 .thenReturn(nextBooking);
@@ -123,6 +140,12 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(nextBooking.getId(), result.getId());
         assertEquals(nextBooking.getItem().getId(), result.getItem().getId());
+
+        ArgumentCaptor<BookingChangedEvent> event = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(outboxPublisher).publish(eq(OutboxEventType.BOOKING_CREATED), eq(nextBooking.getId()),
+                event.capture());
+        assertEquals(owner.getId(), event.getValue().getOwnerId());
+        assertEquals(result, event.getValue().getBooking());
     }
 
     @Test
@@ -130,7 +153,7 @@ class BookingServiceTest {
         item.setOwner(booker);
         when(userService.getById(anyLong()))
                 .thenReturn(userToDto(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.save(any()))
                 .thenReturn(nextBooking);
@@ -145,7 +168,7 @@ class BookingServiceTest {
         bookingRequestDto.setEnd(LocalDateTime.now().minusDays(30));
         when(userService.getById(anyLong()))
                 .thenReturn(userToDto(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         Exception ex = assertThrows(BadRequestException.class, () -> bookingService.save(booker.getId(),
@@ -158,7 +181,7 @@ class BookingServiceTest {
         bookingRequestDto.setStart(LocalDateTime.now().minusHours(12));
         when(userService.getById(anyLong()))
                 .thenReturn(userToDto(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
 
         Exception ex = assertThrows(BadRequestException.class, () -> bookingService.save(booker.getId(),
@@ -171,7 +194,7 @@ class BookingServiceTest {
         item.setAvailable(false);
         when(userService.getById(anyLong()))
                 .thenReturn(userToDto(booker));
-        when(itemRepository.findById(anyLong()))
+        when(itemRepository.findByIdForUpdate(anyLong()))
                 .thenReturn(Optional.of(item));
         when(bookingRepository.save(any()))
                 .thenReturn(nextBooking);
@@ -181,6 +204,50 @@ class BookingServiceTest {
         assertEquals(String.format("Вещь с id = %s недоступна для бронирования.", item.getId()), ex.getMessage());
     }
 
+    @Test
+    void saveOverlappingBookingTest() {
+        when(userService.getById(anyLong()))
+                .thenReturn(userToDto(booker));
+        when(itemRepository.findByIdForUpdate(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findEndsByItemIdStartingBefore(anyLong(), anyCollection(), any(), any()))
+                .thenReturn(List.of(nextBooking.getStart().plusDays(1)));
+
+        Exception ex = assertThrows(BadRequestException.class, () -> bookingService.save(booker.getId(),
+                bookingRequestDto));
+        assertEquals(String.format("Вещь с id = %s уже забронирована на указанный период.", item.getId()),
+                ex.getMessage());
+    }
+
+    @Test
+    void saveAllTest() {
+        BookingRequestDto overlapping = BookingRequestDto.builder()
+                .start(nextBooking.getStart().plusDays(1))
+                .end(nextBooking.getEnd().plusDays(1))
+                .itemId(item.getId())
+                .build();
+        BookingRequestDto withoutItem = BookingRequestDto.builder()
+                .start(nextBooking.getStart())
+                .end(nextBooking.getEnd())
+                .build();
+        when(userService.getById(anyLong()))
+                .thenReturn(userToDto(booker));
+        when(itemRepository.findAllByIdForUpdate(Set.of(item.getId())))
+                .thenReturn(List.of(item));
+        when(bookingRepository.saveAll(anyList()))
+                .thenReturn(List.of(nextBooking));
+
+        List<BulkResultDto> results = bookingService.saveAll(booker.getId(),
+                List.of(bookingRequestDto, overlapping, withoutItem));
+
+        assertEquals(3, results.size());
+        assertEquals(nextBooking.getId(), results.get(0).getId());
+        assertEquals(String.format("Вещь с id = %s уже забронирована на указанный период.", item.getId()),
+                results.get(1).getError());
+        assertEquals("Не указаны вещь или время бронирования.", results.get(2).getError());
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
+    }
+
     @Test
     void getByIdTest() {
         when(userService.getById(anyLong()))
@@ -211,14 +278,51 @@ class BookingServiceTest {
     void approveTest() {
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(nextBooking));
-        when(bookingRepository.save(any()))
-                .thenReturn(nextBooking);
+        when(bookingRepository.updateStatus(nextBooking.getId(), Status.WAITING, Status.APPROVED))
+                .thenReturn(1);
 
         BookingDto result = bookingService.approve(nextBooking.getId(), owner.getId(), true);
 
         assertThat(result.getId(), equalTo(nextBooking.getId()));
         assertThat(result.getItem().getId(), equalTo(nextBooking.getItem().getId()));
         assertThat(result.getStatus(), equalTo(Status.APPROVED));
+        verify(bookingRepository, never()).save(any());
+        verify(outboxPublisher).publish(eq(OutboxEventType.BOOKING_STATUS_CHANGED), eq(nextBooking.getId()),
+                any(BookingChangedEvent.class));
+    }
+
+    @Test
+    void rejectTest() {
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(nextBooking));
+        when(bookingRepository.updateStatus(nextBooking.getId(), Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
+
+        BookingDto result = bookingService.approve(nextBooking.getId(), owner.getId(), false);
+
+        assertThat(result.getStatus(), equalTo(Status.REJECTED));
+        verify(outboxPublisher).publish(eq(OutboxEventType.BOOKING_STATUS_CHANGED), eq(nextBooking.getId()),
+                any(BookingChangedEvent.class));
+    }
+
+    @Test
+    void approveConcurrentlyDecidedTest() {
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(nextBooking));
+        when(bookingRepository.updateStatus(anyLong(), any(), any()))
+                .thenReturn(0);
+        when(bookingRepository.findStatusById(nextBooking.getId()))
+                .thenReturn(Optional.of(Status.APPROVED), Optional.of(Status.REJECTED));
+
+        BookingDto result = bookingService.approve(nextBooking.getId(), owner.getId(), true);
+
+        assertThat(result.getStatus(), equalTo(Status.APPROVED));
+        verify(outboxPublisher, never()).publish(any(), anyLong(), any());
+
+        nextBooking.setStatus(Status.WAITING);
+        Exception ex = assertThrows(BadRequestException.class, () -> bookingService.approve(nextBooking.getId(),
+                owner.getId(), true));
+        assertEquals("Нельзя изменить статус бронирования с REJECTED на APPROVED.", ex.getMessage());
     }
 
     @Test
@@ -251,25 +355,34 @@ class BookingServiceTest {
 
     @Test
     void approveAlreadyConfirmedTest() {
-        when(userService.getById(anyLong()))
-                .thenReturn(userToDto(booker));
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(lastBooking));
+
+        BookingDto result = bookingService.approve(lastBooking.getId(), owner.getId(), true);
+
+        assertThat(result.getStatus(), equalTo(Status.APPROVED));
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(), any());
+        verify(outboxPublisher, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    void rejectAlreadyConfirmedTest() {
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(lastBooking));
 
         Exception ex = assertThrows(BadRequestException.class, () -> bookingService.approve(lastBooking.getId(),
-                owner.getId(), true));
-        assertEquals("Бронирование уже было подтверждено.", ex.getMessage());
+                owner.getId(), false));
+        assertEquals("Нельзя изменить статус бронирования с APPROVED на REJECTED.", ex.getMessage());
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(), any());
     }
 
 
     @Test
     void getAllByBookerIdStatusAllTest() {
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking, lastBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking), bookingToDto(lastBooking))));
 
-        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "ALL", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "ALL", null, Pageable.unpaged());
 
         assertThat(result, hasItems());
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -287,11 +400,10 @@ class BookingServiceTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByStartBeforeAndEndAfterAndBookerIdOrderByStartDesc(
-                any(), any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(currentBooking))));
 
-        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "CURRENT", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "CURRENT", null, Pageable.unpaged());
 
         assertThat(result, hasItems());
         assertThat(result.get(0).getId(), equalTo(currentBooking.getId()));
@@ -301,11 +413,10 @@ class BookingServiceTest {
 
     @Test
     void getAllByBookerIdStatusPastTest() {
-        when(bookingRepository.findAllByEndBeforeAndBookerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(lastBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(lastBooking))));
 
-        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "PAST", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "PAST", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(lastBooking.getId()));
@@ -314,11 +425,10 @@ class BookingServiceTest {
 
     @Test
     void getAllByBookerIdStatusFutureTest() {
-        when(bookingRepository.findAllByStartAfterAndBookerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking))));
 
-        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "FUTURE", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "FUTURE", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -328,11 +438,10 @@ class BookingServiceTest {
 
     @Test
     void getAllByBookerIdStatusWaitingTest() {
-        when(bookingRepository.findAllByStatusAndBookerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking))));
 
-        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "WAITING", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "WAITING", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -342,30 +451,85 @@ class BookingServiceTest {
     @Test
     void getAllByBookerIdStatusRejectedTest() {
         nextBooking.setStatus(Status.REJECTED);
-        when(bookingRepository.findAllByStatusAndBookerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking))));
 
-        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "REJECTED", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "REJECTED", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
         assertThat(result.get(0).getItem().getName(), equalTo(nextBooking.getItem().getName()));
     }
 
+    @Test
+    void getAllByBookerIdCombinedStatesTest() {
+        ArgumentCaptor<BookingFilter> captor = ArgumentCaptor.forClass(BookingFilter.class);
+        when(bookingRepository.findAllByFilter(captor.capture(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking), bookingToDto(lastBooking))));
+
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "FUTURE+WAITING", item.getId(),
+                Pageable.unpaged());
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(captor.getValue().getStates(), containsInAnyOrder(BookingState.FUTURE, BookingState.WAITING));
+        assertThat(captor.getValue().getBookerId(), equalTo(booker.getId()));
+        assertThat(captor.getValue().getOwnerId(), nullValue());
+        assertThat(captor.getValue().getItemId(), equalTo(item.getId()));
+    }
+
+    @Test
+    void countByOwnerIdTest() {
+        ArgumentCaptor<BookingFilter> captor = ArgumentCaptor.forClass(BookingFilter.class);
+        when(bookingRepository.countByFilter(captor.capture()))
+                .thenReturn(3L);
+
+        assertEquals(3L, bookingService.countByOwnerId(owner.getId(), "PAST", null));
+        assertThat(captor.getValue().getStates(), contains(BookingState.PAST));
+        assertThat(captor.getValue().getOwnerId(), equalTo(owner.getId()));
+        assertThat(captor.getValue().getBookerId(), nullValue());
+    }
+
     @Test
     void getAllByBookerIdStatusWrongTest() {
         Exception ex = assertThrows(IncorrectStateException.class, () ->
-                bookingService.getAllByBookerId(booker.getId(), "DEFAULT", Pageable.unpaged()));
+                bookingService.getAllByBookerId(booker.getId(), "DEFAULT", null, Pageable.unpaged()));
         assertEquals("Unknown state: DEFAULT", ex.getMessage());
     }
 
+    @Test
+    void getAllByBookerIdWithCursorTest() {
+        BookingCursor cursor = new BookingCursor(nextBooking.getStart(), nextBooking.getId());
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), eq(cursor), eq(5)))
+                .thenReturn(List.of(bookingToDto(lastBooking)));
+
+        List<BookingDto> result = bookingService.getAllByBookerId(booker.getId(), "PAST", null, cursor.encode(), 5);
+
+        assertEquals(1, result.size());
+        assertEquals(lastBooking.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void getAllByBookerIdWithWrongCursorTest() {
+        assertThrows(BadRequestException.class, () -> bookingService.getAllByBookerId(booker.getId(), "ALL", null,
+                "не-курсор", 5));
+    }
+
+    @Test
+    void getAllByOwnerIdFirstCursorPageTest() {
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), isNull(), eq(5)))
+                .thenReturn(List.of(bookingToDto(nextBooking), bookingToDto(lastBooking)));
+
+        List<BookingDto> result = bookingService.getAllByOwnerId(owner.getId(), "ALL", null, "", 5);
+
+        assertEquals(2, result.size());
+    }
+
     @Test
     void getAllByOwnerIdStatusAllTest() {
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking, lastBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking), bookingToDto(lastBooking))));
 
-        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "ALL", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "ALL", null, Pageable.unpaged());
 
         assertThat(result, hasItems());
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -383,11 +547,10 @@ class BookingServiceTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByStartBeforeAndEndAfterAndItemOwnerIdOrderByStartDesc(
-                any(), any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(currentBooking))));
 
-        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "CURRENT", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "CURRENT", null, Pageable.unpaged());
 
         assertThat(result, hasItems());
         assertThat(result.get(0).getId(), equalTo(currentBooking.getId()));
@@ -397,11 +560,10 @@ class BookingServiceTest {
 
     @Test
     void getAllByOwnerIdStatusPastTest() {
-        when(bookingRepository.findAllByEndBeforeAndItemOwnerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(lastBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(lastBooking))));
 
-        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "PAST", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "PAST", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(lastBooking.getId()));
@@ -410,11 +572,10 @@ class BookingServiceTest {
 
     @Test
     void getAllByOwnerIdStatusFutureTest() {
-        when(bookingRepository.findAllByStartAfterAndItemOwnerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking))));
 
-        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "FUTURE", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "FUTURE", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -423,11 +584,10 @@ class BookingServiceTest {
 
     @Test
     void getAllByOwnerIdStatusWaitingTest() {
-        when(bookingRepository.findAllByStatusAndItemOwnerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking))));
 
-        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "WAITING", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "WAITING", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -437,11 +597,10 @@ class BookingServiceTest {
     @Test
     void getAllByOwnerIdStatusRejectedTest() {
         nextBooking.setStatus(Status.REJECTED);
-        when(bookingRepository.findAllByStatusAndItemOwnerIdOrderByStartDesc(
-                any(), anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(bookingToDto(nextBooking))));
 
-        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "REJECTED", Pageable.unpaged());
+        List<BookingDto> result = bookingService.getAllByOwnerId(booker.getId(), "REJECTED", null, Pageable.unpaged());
 
         assertThat(result.size(), equalTo(1));
         assertThat(result.get(0).getId(), equalTo(nextBooking.getId()));
@@ -451,7 +610,7 @@ class BookingServiceTest {
     @Test
     void getAllByOwnerIdStatusWrongTest() {
         Exception ex = assertThrows(IncorrectStateException.class, () ->
-                bookingService.getAllByOwnerId(booker.getId(), "CANCELED", Pageable.unpaged()));
+                bookingService.getAllByOwnerId(booker.getId(), "CANCELED", null, Pageable.unpaged()));
         assertEquals("Unknown state: CANCELED", ex.getMessage());
     }
 }
\ No newline at end of file
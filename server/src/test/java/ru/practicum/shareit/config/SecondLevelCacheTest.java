@@ -0,0 +1,111 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    Statistics statistics;
+
+    Item item;
+
+    ItemRequest itemRequest;
+
+    @BeforeEach
+    void init() {
+        entityManagerFactory.getCache().evictAll();
+        User owner = userRepository.save(User.builder()
+                .name("Тим Кук")
+                .email("tcook@apple.com")
+                .build());
+        User requester = userRepository.save(User.builder()
+                .name("Ларри Эллисон")
+                .email("ellison@oracle.com")
+                .build());
+        itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужны наушники Apple AirPods Pro 2.")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Apple AirPods Pro 2.")
+                .description("Обновленные беспроводные наушники Apple")
+                .owner(owner)
+                .available(true)
+                .request(itemRequest)
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void clean() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByIdServedFromEntityCacheTest() {
+        Item result = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals(item.getName(), result.getName());
+        assertEquals(itemRequest.getId(), result.getRequest().getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("items").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("requests").getHitCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics("users").getHitCount());
+    }
+
+    @Test
+    void findByRequestIdServedFromQueryCacheTest() {
+        itemRepository.findByRequestId(itemRequest.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(1, itemRepository.findByRequestId(itemRequest.getId()).size());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics("items-by-request").getHitCount());
+    }
+
+    @Test
+    void findByRequestIdInvalidatedOnItemChangeTest() {
+        itemRepository.findByRequestId(itemRequest.getId());
+        item.setName("Apple AirPods Max");
+        itemRepository.save(item);
+
+        assertEquals("Apple AirPods Max", itemRepository.findByRequestId(itemRequest.getId()).get(0).getName());
+        assertEquals(0, statistics.getQueryRegionStatistics("items-by-request").getHitCount());
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ItemAvailabilityIndexTest {
+    static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    BookingRepository bookingRepository;
+
+    ItemAvailabilityIndex index;
+
+    List<BookingIntervalView> intervals;
+
+    @BeforeEach
+    void init() {
+        intervals = new ArrayList<>(List.of(
+                interval(1L, 1, 3),
+                interval(2L, 3, 5),
+                interval(3L, 8, 10)));
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findIntervalsByItemId(anyLong(), anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(intervals));
+
+        index = new ItemAvailabilityIndex(bookingRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void getSlotsTest() {
+        List<String> slots = slots(0, 12);
+
+        assertEquals(List.of("0-1 free", "1-3 booked", "3-5 booked", "5-8 free", "8-10 booked", "10-12 free"),
+                slots);
+    }
+
+    @Test
+    void getSlotsClipsToPeriodTest() {
+        assertEquals(List.of("2-3 booked", "3-4 booked"), slots(2, 4));
+        assertEquals(List.of("6-7 free"), slots(6, 7));
+        assertEquals(List.of("9-10 booked", "10-11 free"), slots(9, 11));
+    }
+
+    @Test
+    void getSlotsLoadsItemOnceTest() {
+        slots(0, 12);
+        slots(4, 9);
+
+        verify(bookingRepository, times(1)).findIntervalsByItemId(anyLong(), anyCollection());
+    }
+
+    @Test
+    void addAndRemoveTest() {
+        slots(0, 12);
+        index.add(booking(4L, 6, 7));
+        index.add(booking(4L, 6, 7));
+
+        assertEquals(List.of("5-6 free", "6-7 booked", "7-8 free"), slots(5, 8));
+
+        index.remove(1L, 2L);
+
+        assertEquals(List.of("1-3 booked", "3-6 free", "6-7 booked"), slots(1, 7));
+    }
+
+    @Test
+    void addToNotLoadedItemTest() {
+        index.add(booking(4L, 6, 7));
+        intervals.add(2, interval(4L, 6, 7));
+
+        assertEquals(List.of("5-6 free", "6-7 booked", "7-8 free"), slots(5, 8));
+    }
+
+    @Test
+    void evictTest() {
+        slots(0, 12);
+        intervals.clear();
+        index.handle(OutboxEventType.ITEM_DELETED, ItemDto.builder().id(1L).build());
+
+        assertEquals(List.of("0-12 free"), slots(0, 12));
+    }
+
+    @Test
+    void updaterRereadsStatusTest() {
+        ItemAvailabilityUpdater updater = new ItemAvailabilityUpdater(bookingRepository, index);
+        BookingChangedEvent created = new BookingChangedEvent(booking(4L, 6, 7), 1L);
+        slots(0, 12);
+        when(bookingRepository.findStatusById(4L))
+                .thenReturn(Optional.of(Status.WAITING));
+        updater.handle(OutboxEventType.BOOKING_CREATED, created);
+
+        assertEquals(List.of("6-7 booked"), slots(6, 7));
+
+        when(bookingRepository.findStatusById(4L))
+                .thenReturn(Optional.of(Status.REJECTED));
+        updater.handle(OutboxEventType.BOOKING_STATUS_CHANGED, created);
+        updater.handle(OutboxEventType.BOOKING_CREATED, created);
+
+        assertEquals(List.of("6-7 free"), slots(6, 7));
+    }
+
+    @Test
+    void filterFreeTest() {
+        when(bookingRepository.findIntervalsByItemIds(anyCollection(), anyCollection()))
+                .thenReturn(List.of(interval(2L, 4L, 2, 6)));
+        slots(0, 12);
+
+        assertEquals(List.of(1L, 2L, 3L), index.filterFree(List.of(1L, 2L, 3L), DAY.plusDays(6), DAY.plusDays(8)));
+        assertEquals(List.of(3L), index.filterFree(List.of(1L, 2L, 3L), DAY.plusDays(4), DAY.plusDays(5)));
+        verify(bookingRepository, times(1)).findIntervalsByItemIds(List.of(2L, 3L), Status.BLOCKING);
+    }
+
+    @Test
+    void getSlotsWithOverlappingBookingsTest() {
+        intervals.add(1, interval(4L, 2, 9));
+
+        assertEquals(List.of("0-1 free", "1-3 booked", "3-9 booked", "9-10 booked", "10-12 free"), slots(0, 12));
+        assertEquals(List.of("6-7 booked"), slots(6, 7));
+    }
+
+    private List<String> slots(int from, int to) {
+        return index.getSlots(1L, DAY.plusDays(from), DAY.plusDays(to)).stream()
+                .map(ItemAvailabilityIndexTest::format)
+                .collect(Collectors.toList());
+    }
+
+    private static String format(AvailabilitySlotDto slot) {
+        return Duration.between(DAY, slot.getStart()).toDays() + "-" + Duration.between(DAY, slot.getEnd()).toDays() +
+                (slot.isFree() ? " free" : " booked");
+    }
+
+    private static BookingDto booking(Long id, int start, int end) {
+        return BookingDto.builder()
+                .id(id)
+                .start(DAY.plusDays(start))
+                .end(DAY.plusDays(end))
+                .item(ItemShortDto.builder().id(1L).build())
+                .build();
+    }
+
+    private static BookingIntervalView interval(Long id, int start, int end) {
+        return interval(1L, id, start, end);
+    }
+
+    private static BookingIntervalView interval(Long itemId, Long id, int start, int end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return DAY.plusDays(start);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return DAY.plusDays(end);
+            }
+        };
+    }
+}
@@ -7,11 +7,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.bulk.BulkImporter;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
@@ -31,11 +35,13 @@ import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
 @AutoConfigureMockMvc
+@Import(BulkImporter.class)
 class ItemControllerTest {
     private static final String USER_ID = "X-Sharer-User-Id";
 
@@ -115,6 +121,44 @@ class ItemControllerTest {
 
         verify(itemService, times(1))
                 .getAllByOwner(anyLong(), any(Pageable.class));
+        verify(itemService, never()).countByOwner(anyLong());
+    }
+
+    @Test
+    void getAllByOwnerWithTotalTest() throws Exception {
+        when(itemService.getAllByOwner(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(itemDtoWithBooking));
+        when(itemService.countByOwner(1L))
+                .thenReturn(42L);
+
+        mockMvc.perform(get("/items")
+                        .header(USER_ID, "1")
+                        .param("from", "0")
+                        .param("size", "5")
+                        .param("total", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andExpect(jsonPath("$[0].id", is(itemDtoWithBooking.getId()), Long.class));
+    }
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(
+                        AvailabilitySlotDto.builder().start(from).end(from.plusDays(2)).free(true).build(),
+                        AvailabilitySlotDto.builder().start(from.plusDays(2)).end(to).free(false).build()));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .header(USER_ID, "1")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T00:00:00")))
+                .andExpect(jsonPath("$[0].free", is(true)))
+                .andExpect(jsonPath("$[1].end", is("2030-01-11T00:00:00")))
+                .andExpect(jsonPath("$[1].free", is(false)));
     }
 
     @Test
@@ -150,6 +194,57 @@ class ItemControllerTest {
                 .create(any(ItemDto.class), anyLong());
     }
 
+    @Test
+    void createAllTest() throws Exception {
+        when(itemService.createAll(anyList(), anyLong()))
+                .thenReturn(List.of(BulkResultDto.builder().id(1L).build(),
+                        BulkResultDto.builder().error("Название вещи не должно быть пустым.").build()));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(USER_ID, "1")
+                        .content(mapper.writeValueAsString(List.of(itemDto, ItemDto.builder().build())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Название вещи не должно быть пустым.")));
+
+        verify(itemService, times(1))
+                .createAll(anyList(), anyLong());
+    }
+
+    @Test
+    void createAllFallsBackToSingleElementsTest() throws Exception {
+        when(itemService.createAll(anyList(), anyLong()))
+                .thenAnswer(invocation -> {
+                    List<ItemDto> chunk = invocation.getArgument(0);
+                    if (chunk.size() > 1 || chunk.get(0).getName() == null) {
+                        throw new IllegalStateException("Нарушено ограничение уникальности");
+                    }
+                    return List.of(BulkResultDto.builder().id(1L).build());
+                });
+        String body = mapper.writeValueAsString(itemDto) + "\n" + mapper.writeValueAsString(ItemDto.builder().build());
+
+        mockMvc.perform(post("/items/bulk")
+                        .header(USER_ID, "1")
+                        .content(body)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Нарушено ограничение уникальности")));
+
+        verify(itemService, times(3))
+                .createAll(anyList(), anyLong());
+    }
+
     @Test
     void createWithBadRequestTest() throws Exception {
         when(itemService.create(any(), anyLong()))
@@ -255,6 +350,23 @@ class ItemControllerTest {
                 .search(anyString(), any(Pageable.class));
     }
 
+    @Test
+    void searchFreeTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(3);
+        when(itemService.searchFree(anyString(), eq(start), eq(end), any(Pageable.class)))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .header(USER_ID, "1")
+                        .param("text", "item")
+                        .param("start", start.toString())
+                        .param("end", end.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+        verify(itemService, never()).search(anyString(), any(Pageable.class));
+    }
+
     @Test
     void addCommentTest() throws Exception {
         when(itemService.createComment(anyLong(), anyLong(), any()))
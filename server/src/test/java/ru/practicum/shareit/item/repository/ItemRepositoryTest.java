@@ -4,8 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -13,10 +17,12 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -29,6 +35,9 @@ class ItemRepositoryTest {
     @Autowired
     ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    BookingRepository bookingRepository;
+
     User user;
 
     Item item;
@@ -62,18 +71,90 @@ class ItemRepositoryTest {
 
     @Test
     void searchAvailableItemsTest() {
-        Page<Item> result = itemRepository.searchAvailableItems("Apple AirPods Pro 2", Pageable.unpaged());
+        Slice<Item> result = itemRepository.searchAvailableItems("Apple AirPods Pro 2", Pageable.unpaged());
 
         assertNotNull(result);
         assertEquals(item, result.stream().findFirst().orElse(null));
     }
 
+    @Test
+    void searchAvailableItemsSkipsUnavailableTest() {
+        itemRepository.save(Item.builder()
+                .name("Наушники")
+                .description("Беспроводные наушники Apple AirPods")
+                .owner(user)
+                .available(false)
+                .build());
+
+        Slice<Item> result = itemRepository.searchAvailableItems("airpods", Pageable.unpaged());
+
+        assertEquals(List.of(item), result.toList());
+    }
+
+    @Test
+    void searchAvailableItemsRankedByRelevanceTest() {
+        Item described = itemRepository.save(Item.builder()
+                .name("Чехол")
+                .description("Чехол для Apple AirPods Pro 2")
+                .owner(user)
+                .available(true)
+                .build());
+        Item exact = itemRepository.save(Item.builder()
+                .name("AirPods")
+                .description("Беспроводные наушники")
+                .owner(user)
+                .available(true)
+                .build());
+
+        Slice<Item> result = itemRepository.searchAvailableItems("airpods", PageRequest.of(0, 2));
+
+        assertEquals(List.of(exact, item), result.toList());
+        assertTrue(result.hasNext());
+        assertEquals(List.of(described), itemRepository.searchAvailableItems("airpods", result.nextPageable())
+                .toList());
+    }
+
+    @Test
+    void searchFreeItemsTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        User booker = userRepository.save(User.builder()
+                .name("Тим Кук")
+                .email("tcook@apple.com")
+                .build());
+        Item exact = itemRepository.save(Item.builder()
+                .name("AirPods")
+                .description("Беспроводные наушники")
+                .owner(user)
+                .available(true)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1))
+                .end(now.plusDays(3))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1))
+                .end(now.plusDays(3))
+                .item(exact)
+                .booker(booker)
+                .status(Status.REJECTED)
+                .build());
+
+        assertEquals(List.of(exact), itemRepository.searchFreeItems("airpods", now.plusDays(2), now.plusDays(4),
+                Status.BLOCKING, Pageable.unpaged()).toList());
+        assertEquals(List.of(exact, item), itemRepository.searchFreeItems("airpods", now.plusDays(3),
+                now.plusDays(4), Status.BLOCKING, Pageable.unpaged()).toList());
+    }
+
     @Test
     void findByOwnerIdTest() {
-        Page<Item> result = itemRepository.findByOwnerId(user.getId(), Pageable.unpaged());
+        Slice<Item> result = itemRepository.findByOwnerId(user.getId(), Pageable.unpaged());
 
         assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(1, itemRepository.countByOwnerId(user.getId()));
     }
 
     @Test
@@ -83,4 +164,19 @@ class ItemRepositoryTest {
         assertNotNull(result);
         assertEquals(1, result.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByRequestIdInTest() {
+        List<Item> result = itemRepository.findByRequestIdIn(List.of(itemRequest.getId(), itemRequest.getId() + 1));
+
+        assertEquals(List.of(item), result);
+        assertTrue(itemRepository.findByRequestIdIn(List.of(itemRequest.getId() + 1)).isEmpty());
+    }
+
+    @Test
+    void findByIdForUpdateTest() {
+        Item result = itemRepository.findByIdForUpdate(item.getId()).orElse(null);
+
+        assertEquals(item, result);
+    }
+}
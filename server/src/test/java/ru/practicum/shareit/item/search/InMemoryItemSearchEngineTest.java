@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTest {
+    ItemRepository itemRepository;
+
+    ItemAvailabilityIndex itemAvailabilityIndex;
+
+    InMemoryItemSearchEngine engine;
+
+    Item airPods;
+
+    Item airPodsCase;
+
+    Item drill;
+
+    Item hiddenAirPods;
+
+    @BeforeEach
+    void init() {
+        airPods = item(1L, "Apple AirPods Pro 2", "Обновленные беспроводные наушники Apple", true);
+        airPodsCase = item(2L, "Чехол", "Чехол для Apple AirPods Pro 2", true);
+        drill = item(3L, "Дрель", "Простая дрель", true);
+        hiddenAirPods = item(4L, "AirPods", "Недоступные наушники", false);
+        List<Item> items = List.of(airPods, airPodsCase, drill, hiddenAirPods);
+
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(items));
+        when(itemRepository.findAllById(anyIterable()))
+                .thenAnswer(invocation -> {
+                    Iterable<Long> ids = invocation.getArgument(0);
+                    List<Long> wanted = new ArrayList<>();
+                    ids.forEach(wanted::add);
+                    return items.stream()
+                            .filter(item -> wanted.contains(item.getId()))
+                            .collect(Collectors.toList());
+                });
+
+        itemAvailabilityIndex = mock(ItemAvailabilityIndex.class);
+        engine = new InMemoryItemSearchEngine(itemRepository, itemAvailabilityIndex);
+        engine.build();
+    }
+
+    @Test
+    void searchRanksAndSkipsUnavailableTest() {
+        Slice<Item> result = engine.search("AIRPODS", Pageable.unpaged());
+
+        assertEquals(List.of(airPods, airPodsCase), result.toList());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void searchShortQueryTest() {
+        Slice<Item> result = engine.search("др", Pageable.unpaged());
+
+        assertEquals(List.of(drill), result.toList());
+    }
+
+    @Test
+    void searchPagedTest() {
+        Slice<Item> result = engine.search("apple", PageRequest.of(0, 1));
+
+        assertEquals(List.of(airPods), result.toList());
+        assertTrue(result.hasNext());
+        assertEquals(List.of(airPodsCase), engine.search("apple", result.nextPageable()).toList());
+    }
+
+    @Test
+    void searchFreeTest() {
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusDays(1);
+        when(itemAvailabilityIndex.filterFree(List.of(airPods.getId(), airPodsCase.getId()), start, end))
+                .thenReturn(List.of(airPodsCase.getId()));
+
+        Slice<Item> result = engine.searchFree("airpods", start, end, PageRequest.of(0, 1));
+
+        assertEquals(List.of(airPodsCase), result.toList());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void buildKeepsChangesCommittedDuringBuildTest() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    engine.index(item(drill.getId(), "Перфоратор", "Мощный перфоратор", true));
+                    engine.remove(airPods.getId());
+                    return new PageImpl<>(List.of(airPods, airPodsCase, drill, hiddenAirPods));
+                });
+
+        engine.build();
+
+        assertEquals(List.of(drill), engine.search("перфо", Pageable.unpaged()).toList());
+        assertTrue(engine.search("дрель", Pageable.unpaged()).isEmpty());
+        assertEquals(List.of(airPodsCase), engine.search("airpods", Pageable.unpaged()).toList());
+    }
+
+    @Test
+    void indexAndRemoveTest() {
+        drill.setName("Перфоратор");
+        engine.index(drill);
+
+        assertEquals(List.of(drill), engine.search("перфо", Pageable.unpaged()).toList());
+        assertEquals(List.of(drill), engine.search("дрель", Pageable.unpaged()).toList());
+
+        drill.setAvailable(false);
+        engine.index(drill);
+
+        assertTrue(engine.search("перфо", Pageable.unpaged()).isEmpty());
+
+        engine.remove(airPods.getId());
+
+        assertEquals(List.of(airPodsCase), engine.search("airpods", Pageable.unpaged()).toList());
+    }
+
+    private Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.impl.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest
+@Import(ItemBookingSummaryServiceImpl.class)
+class ItemBookingSummaryServiceTest {
+    @Autowired
+    ItemBookingSummaryService itemBookingSummaryService;
+
+    @Autowired
+    ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    User booker;
+
+    Item item;
+
+    Booking lastBooking;
+
+    Booking booking;
+
+    Booking nextBooking;
+
+    LocalDateTime now;
+
+    @BeforeEach
+    void init() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        User owner = userRepository.save(User.builder()
+                .name("Вадим Фаустов")
+                .email("vadimfaustov@gmail.com")
+                .build());
+
+        booker = userRepository.save(User.builder()
+                .name("Тим Кук")
+                .email("tcook@apple.com")
+                .build());
+
+        item = itemRepository.save(Item.builder()
+                .name("Apple MacBook Pro")
+                .description("Новый MacBook Pro. Невероятная мощь с чипом M1 Pro или M1 Max.")
+                .owner(owner)
+                .available(true)
+                .build());
+
+        lastBooking = bookingRepository.save(booking(now.minusDays(15), now.minusDays(5)));
+        booking = bookingRepository.save(booking(now.plusDays(2), now.plusDays(10)));
+        nextBooking = bookingRepository.save(booking(now.plusDays(14), now.plusDays(30)));
+    }
+
+    @Test
+    void refreshDueBuildsMissingSummariesTest() {
+        assertThat(itemBookingSummaryService.refreshDue(10), equalTo(1));
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId(), equalTo(lastBooking.getId()));
+        assertThat(summary.getLastBookerId(), equalTo(booker.getId()));
+        assertThat(summary.getNextBookingId(), equalTo(nextBooking.getId()));
+        assertThat(summary.getNextBookerId(), equalTo(booker.getId()));
+        assertThat(summary.getRefreshAt(), equalTo(booking.getEnd()));
+        assertThat(itemBookingSummaryService.refreshDue(10), equalTo(0));
+    }
+
+    @Test
+    void refreshTest() {
+        itemBookingSummaryService.refresh(List.of(item.getId()));
+        Booking laterBooking = bookingRepository.save(booking(now.plusDays(40), now.plusDays(50)));
+        itemBookingSummaryService.refresh(List.of(item.getId()));
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getNextBookingId(), equalTo(laterBooking.getId()));
+        assertThat(summary.getRefreshAt(), equalTo(booking.getEnd()));
+    }
+
+    @Test
+    void getByItemIdsRecomputesStaleSummaryTest() {
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBookingId(booking.getId())
+                .lastBookerId(booker.getId())
+                .refreshAt(now.minusMinutes(1))
+                .build());
+
+        ItemBookingSummary summary = itemBookingSummaryService.getByItemIds(List.of(item.getId())).get(item.getId());
+
+        assertThat(summary.getLastBookingId(), equalTo(lastBooking.getId()));
+        assertThat(summary.getNextBookingId(), equalTo(nextBooking.getId()));
+    }
+
+    @Test
+    void getByItemIdsWithoutBookingsTest() {
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Apple iPad")
+                .description("Планшет")
+                .owner(booker)
+                .available(true)
+                .build());
+
+        ItemBookingSummary summary = itemBookingSummaryService.getByItemIds(List.of(otherItem.getId()))
+                .get(otherItem.getId());
+
+        assertThat(summary, notNullValue());
+        assertThat(summary.getLastBookingId(), nullValue());
+        assertThat(summary.getNextBookingId(), nullValue());
+        assertThat(summary.getRefreshAt(), nullValue());
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+    }
+}
@@ -5,21 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.bulk.dto.BulkResultDto;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -28,10 +35,14 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.item.mapper.CommentMapper.commentToDto;
 import static ru.practicum.shareit.item.mapper.ItemMapper.itemToDto;
@@ -57,6 +68,18 @@ class ItemServiceTest {
     @MockBean
     ItemRequestRepository itemRequestRepository;
 
+    @MockBean
+    ItemSearchEngine itemSearchEngine;
+
+    @MockBean
+    ItemBookingSummaryService itemBookingSummaryService;
+
+    @MockBean
+    OutboxPublisher outboxPublisher;
+
+    @MockBean
+    ItemAvailabilityIndex itemAvailabilityIndex;
+
     User owner;
 
     User booker;
@@ -117,7 +140,8 @@ class ItemServiceTest {
                 .build();
 
         itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
-                itemRequestRepository);
+                itemRequestRepository, itemSearchEngine, itemBookingSummaryService, outboxPublisher,
+                itemAvailabilityIndex);
     }
 
 
@@ -136,6 +160,8 @@ class ItemServiceTest {
         assertEquals(item.getId(), itemDto.getId());
         assertEquals(item.getName(), itemDto.getName());
         assertEquals(item.getDescription(), itemDto.getDescription());
+        verify(outboxPublisher).publish(OutboxEventType.ITEM_CREATED, item.getId(), itemDto);
+        verifyNoInteractions(itemSearchEngine);
     }
 
     @Test
@@ -182,6 +208,40 @@ class ItemServiceTest {
         assertEquals(String.format("Запрос на вещь с id = %s не найден", item.getRequest().getId()), ex.getMessage());
     }
 
+    @Test
+    void createAllTest() {
+        ItemDto invalid = ItemDto.builder()
+                .description("Без названия")
+                .available(true)
+                .build();
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(owner));
+        when(itemRequestRepository.findById(anyLong()))
+                .thenReturn(Optional.of(itemRequest));
+        when(itemRepository.saveAll(anyList()))
+                .thenReturn(List.of(item));
+
+        List<BulkResultDto> results = itemService.createAll(List.of(itemToDto(item), invalid), owner.getId());
+
+        assertEquals(2, results.size());
+        assertEquals(item.getId(), results.get(0).getId());
+        assertNull(results.get(0).getError());
+        assertNull(results.get(1).getId());
+        assertEquals("Название вещи не должно быть пустым.", results.get(1).getError());
+        verify(outboxPublisher).publish(eq(OutboxEventType.ITEM_CREATED), eq(item.getId()), any(ItemDto.class));
+        verifyNoInteractions(itemSearchEngine);
+    }
+
+    @Test
+    void createAllNotFoundUserTest() {
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        Exception ex = assertThrows(NotFoundException.class, () -> itemService.createAll(List.of(itemToDto(item)),
+                owner.getId()));
+        assertEquals(String.format("Пользователь с id = %s не найден.", owner.getId()), ex.getMessage());
+    }
+
     @Test
     void updateTest() {
         Item updatedItem = Item.builder()
@@ -213,6 +273,8 @@ class ItemServiceTest {
         assertEquals(updatedItemDto.getId(), result.getId());
         assertEquals(updatedItemDto.getName(), result.getName());
         assertEquals(updatedItemDto.getDescription(), result.getDescription());
+        verify(outboxPublisher).publish(OutboxEventType.ITEM_UPDATED, updatedItem.getId(), result);
+        verifyNoInteractions(itemSearchEngine);
     }
 
     @Test
@@ -283,13 +345,22 @@ class ItemServiceTest {
     void getByIdTest() {
         when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
+        when(itemBookingSummaryService.getByItemIds(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .nextBookingId(booking.getId())
+                        .nextBookerId(booker.getId())
+                        .build()));
 
-        ItemDtoWithBooking result = itemService.getById(item.getId(), owner.getId());
+        ItemDtoWithBooking result = itemService.getById(owner.getId(), item.getId());
 
         assertNotNull(result);
         assertEquals(item.getId(), result.getId());
         assertEquals(item.getName(), result.getName());
         assertEquals(item.getDescription(), result.getDescription());
+        assertNull(result.getLastBooking());
+        assertEquals(booking.getId(), result.getNextBooking().getId());
+        assertEquals(booker.getId(), result.getNextBooking().getBookerId());
     }
 
     @Test
@@ -301,16 +372,87 @@ class ItemServiceTest {
         assertEquals(String.format("Вещь с id = %s не найдена.", item.getId()), ex.getMessage());
     }
 
+    @Test
+    void getAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(7);
+        List<AvailabilitySlotDto> slots = List.of(AvailabilitySlotDto.builder()
+                .start(from)
+                .end(to)
+                .free(true)
+                .build());
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        when(itemAvailabilityIndex.getSlots(item.getId(), from, to))
+                .thenReturn(slots);
+
+        assertEquals(slots, itemService.getAvailability(item.getId(), from, to));
+        verify(bookingRepository, never()).findIntervalsByItemId(anyLong(), anyCollection());
+    }
+
+    @Test
+    void getAvailabilityWrongPeriodTest() {
+        LocalDateTime from = LocalDateTime.now();
+
+        Exception ex = assertThrows(BadRequestException.class,
+                () -> itemService.getAvailability(item.getId(), from, from));
+        assertEquals("Начало периода должно быть раньше его окончания.", ex.getMessage());
+        verify(itemAvailabilityIndex, never()).getSlots(anyLong(), any(), any());
+    }
+
+    @Test
+    void getAvailabilityNotFoundTest() {
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        Exception ex = assertThrows(NotFoundException.class, () -> itemService.getAvailability(item.getId(),
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1)));
+        assertEquals(String.format("Вещь с id = %s не найдена.", item.getId()), ex.getMessage());
+    }
+
     @Test
     void getAllByOwnerTest() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(owner));
         when(itemRepository.findByOwnerId(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(item)));
+                .thenReturn(new SliceImpl<>(List.of(item)));
+        when(itemBookingSummaryService.getByItemIds(anyCollection()))
+                .thenReturn(Map.of(item.getId(), ItemBookingSummary.builder()
+                        .itemId(item.getId())
+                        .lastBookingId(booking.getId())
+                        .lastBookerId(booker.getId())
+                        .build()));
+        when(commentRepository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(comment));
 
         List<ItemDtoWithBooking> result = itemService.getAllByOwner(owner.getId(), Pageable.unpaged());
 
         assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getLastBooking().getId());
+        assertEquals(booker.getId(), result.get(0).getLastBooking().getBookerId());
+        assertNull(result.get(0).getNextBooking());
+        assertEquals(1, result.get(0).getComments().size());
+        assertEquals(comment.getText(), result.get(0).getComments().get(0).getText());
+    }
+
+    @Test
+    void countByOwnerTest() {
+        when(itemRepository.countByOwnerId(owner.getId()))
+                .thenReturn(5L);
+
+        assertEquals(5L, itemService.countByOwner(owner.getId()));
+    }
+
+    @Test
+    void getAllByOwnerEmptyTest() {
+        when(itemRepository.findByOwnerId(anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        List<ItemDtoWithBooking> result = itemService.getAllByOwner(owner.getId(), Pageable.unpaged());
+
+        assertEquals(0, result.size());
+        verify(itemBookingSummaryService, never()).getByItemIds(anyCollection());
+        verify(commentRepository, never()).findAllByItemIdIn(anyCollection());
     }
 
     @Test
@@ -322,12 +464,14 @@ class ItemServiceTest {
         List<Item> items = itemRepository.findAll();
 
         assertEquals(0, items.size());
+        verify(outboxPublisher).publish(eq(OutboxEventType.ITEM_DELETED), eq(item.getId()), any(ItemDto.class));
+        verifyNoInteractions(itemSearchEngine);
     }
 
     @Test
     void searchTest() {
-        when(itemRepository.searchAvailableItems(anyString(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(item)));
+        when(itemSearchEngine.search(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(item)));
 
         List<ItemDto> result = itemService.search("AirPods", Pageable.unpaged());
 
@@ -335,10 +479,31 @@ class ItemServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void searchFreeTest() {
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusDays(1);
+        when(itemSearchEngine.searchFree("AirPods", start, end, Pageable.unpaged()))
+                .thenReturn(new SliceImpl<>(List.of(item)));
+
+        List<ItemDto> result = itemService.searchFree("AirPods", start, end, Pageable.unpaged());
+
+        assertEquals(1, result.size());
+        assertEquals(item.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void searchFreeWithoutEndTest() {
+        Exception ex = assertThrows(BadRequestException.class,
+                () -> itemService.searchFree("AirPods", LocalDateTime.now(), null, Pageable.unpaged()));
+        assertEquals("Для поиска свободных вещей нужно указать начало и окончание периода.", ex.getMessage());
+        verify(itemSearchEngine, never()).searchFree(anyString(), any(), any(), any());
+    }
+
     @Test
     void searchEmptyTextTest() {
-        when(itemRepository.searchAvailableItems(anyString(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(itemSearchEngine.search(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         List<ItemDto> result = itemService.search("", Pageable.unpaged());
 
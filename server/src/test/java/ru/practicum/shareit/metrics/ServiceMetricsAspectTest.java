@@ -0,0 +1,95 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
+import ru.practicum.shareit.exception.IncorrectStateException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceMetricsAspectTest {
+    SimpleMeterRegistry meterRegistry;
+
+    BookingRepository bookingRepository;
+
+    BookingService bookingService;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingRepository = mock(BookingRepository.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BookingServiceImpl(bookingRepository,
+                mock(ItemRepository.class), mock(UserService.class), mock(OutboxPublisher.class)));
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        bookingService = factory.getProxy();
+    }
+
+    @Test
+    void timesServiceMethodWithStateTest() {
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        bookingService.getAllByBookerId(1L, "PAST", null, Pageable.unpaged());
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("class", "BookingServiceImpl")
+                .tag("method", "getAllByBookerId")
+                .tag("state", "PAST")
+                .tag("exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    void timesServiceMethodWithCombinedStateTest() {
+        when(bookingRepository.findAllByFilter(any(BookingFilter.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        bookingService.getAllByOwnerId(1L, "WAITING,FUTURE", null, Pageable.unpaged());
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getAllByOwnerId")
+                .tag("state", "FUTURE+WAITING")
+                .timer().count());
+    }
+
+    @Test
+    void timesFailedServiceMethodTest() {
+        assertThrows(IncorrectStateException.class, () -> bookingService.getAllByOwnerId(1L, "UNSUPPORTED", null,
+                Pageable.unpaged()));
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getAllByOwnerId")
+                .tag("state", "UNKNOWN")
+                .tag("exception", "IncorrectStateException")
+                .timer().count());
+    }
+
+    @Test
+    void timesServiceMethodWithoutStateTest() {
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getById(1L, 1L));
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", "getById")
+                .tag("state", "none")
+                .timer().count());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementMetricsListenerTest {
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void clean() {
+        Metrics.removeRegistry(meterRegistry);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void recordsStatementsPerRequestTest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        SqlStatementMetricsListener listener = new SqlStatementMetricsListener();
+
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcPrepareStatementStart();
+        listener.end();
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementMetricsListener.METRIC_NAME)
+                .tag("uri", "/items/{itemId}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+    }
+
+    @Test
+    void recordsStatementsOutsideRequestTest() {
+        SqlStatementMetricsListener listener = new SqlStatementMetricsListener();
+
+        listener.jdbcPrepareStatementStart();
+        listener.end();
+
+        assertEquals(1, meterRegistry.get(SqlStatementMetricsListener.METRIC_NAME)
+                .tag("uri", "none")
+                .summary().totalAmount());
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.outbox.model.OutboxDeadLetter;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxEventType;
+import ru.practicum.shareit.outbox.repository.OutboxDeadLetterRepository;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.user.dto.UserShortDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "shareit.outbox.max-attempts=2",
+        "shareit.outbox.retry-delay=PT1M"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxRelay.class, OutboxPublisher.class, OutboxRelayTest.Config.class})
+class OutboxRelayTest {
+    @Autowired
+    OutboxPublisher outboxPublisher;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    RecordingHandler handler;
+
+    ItemDto item;
+
+    @BeforeEach
+    void init() {
+        handler.payloads.clear();
+        handler.failing = false;
+        item = ItemDto.builder()
+                .id(1L)
+                .name("Apple AirPods Pro 2")
+                .description("Обновленные беспроводные наушники Apple")
+                .available(true)
+                .build();
+    }
+
+    @Test
+    void relayDeliversAndDeletesEventTest() {
+        outboxPublisher.publish(OutboxEventType.ITEM_UPDATED, item.getId(), item);
+
+        assertThat(outboxRelay.relay(), equalTo(1));
+        assertThat(handler.payloads.size(), equalTo(1));
+        assertThat(((ItemDto) handler.payloads.get(0)).getName(), equalTo(item.getName()));
+        assertThat(outboxEventRepository.count(), equalTo(0L));
+        assertThat(outboxRelay.relay(), equalTo(0));
+        assertThat(meterRegistry.get(OutboxRelay.METRIC_NAME)
+                .tags("type", "ITEM_UPDATED", "outcome", "delivered")
+                .counter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get(OutboxRelay.LAG_METRIC_NAME).timer().count(), equalTo(1L));
+    }
+
+    @Test
+    void relayDeliversTypedBookingPayloadTest() {
+        BookingDto booking = BookingDto.builder()
+                .id(7L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(ItemShortDto.builder().id(item.getId()).name(item.getName()).build())
+                .booker(UserShortDto.builder().id(2L).name("Тим Кук").build())
+                .status(Status.WAITING)
+                .build();
+        outboxPublisher.publish(OutboxEventType.BOOKING_CREATED, booking.getId(),
+                new BookingChangedEvent(booking, 1L));
+
+        outboxRelay.relay();
+
+        BookingChangedEvent event = (BookingChangedEvent) handler.payloads.get(0);
+        assertThat(event.getOwnerId(), equalTo(1L));
+        assertThat(event.getBooking().getId(), equalTo(booking.getId()));
+        assertThat(event.getBooking().getBooker().getName(), equalTo("Тим Кук"));
+        assertThat(event.getBooking().getStatus(), equalTo(Status.WAITING));
+    }
+
+    @Test
+    void relayRetriesFailedEventTest() {
+        handler.failing = true;
+        outboxPublisher.publish(OutboxEventType.ITEM_UPDATED, item.getId(), item);
+
+        assertThat(outboxRelay.relay(), equalTo(1));
+
+        OutboxEvent event = outboxEventRepository.findAll().get(0);
+        assertThat(event.getAttempts(), equalTo(1));
+        assertThat(event.getLastError(), containsString("Обработчик недоступен"));
+        assertThat(event.getNextAttemptAt(), greaterThan(LocalDateTime.now()));
+        assertThat(outboxRelay.relay(), equalTo(0));
+        assertThat(meterRegistry.get(OutboxRelay.METRIC_NAME)
+                .tags("type", "ITEM_UPDATED", "outcome", "retried")
+                .counter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void relayMovesExhaustedEventToDeadLettersTest() {
+        handler.failing = true;
+        outboxPublisher.publish(OutboxEventType.ITEM_UPDATED, item.getId(), item);
+        outboxRelay.relay();
+        outboxEventRepository.findAll().get(0).setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+
+        assertThat(outboxRelay.relay(), equalTo(1));
+
+        assertThat(outboxEventRepository.count(), equalTo(0L));
+        List<OutboxDeadLetter> deadLetters = outboxDeadLetterRepository.findAll();
+        assertThat(deadLetters.size(), equalTo(1));
+        assertThat(deadLetters.get(0).getType(), equalTo(OutboxEventType.ITEM_UPDATED));
+        assertThat(deadLetters.get(0).getAggregateId(), equalTo(item.getId()));
+        assertThat(deadLetters.get(0).getAttempts(), equalTo(2));
+    }
+
+    @Test
+    void publishRejectsPayloadOfWrongTypeTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> outboxPublisher.publish(OutboxEventType.BOOKING_CREATED, item.getId(), item));
+    }
+
+    static class RecordingHandler implements OutboxEventHandler<Object> {
+        final List<Object> payloads = new ArrayList<>();
+
+        boolean failing;
+
+        @Override
+        public Set<OutboxEventType> getTypes() {
+            return EnumSet.allOf(OutboxEventType.class);
+        }
+
+        @Override
+        public void handle(OutboxEventType type, Object payload) {
+            if (failing) {
+                throw new IllegalStateException("Обработчик недоступен");
+            }
+            payloads.add(payload);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.plan;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingFilter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.platform=h2",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "ru.practicum.shareit.plan.CapturingStatementInspector"
+})
+class QueryPlanTest {
+    private static final String TABLE_SCAN = ".tableScan";
+
+    private static final String ITEMS = "PUBLIC.ITEMS";
+
+    private static final int USERS = 50;
+
+    private static final int ITEMS_PER_USER = 4;
+
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    User user;
+
+    Item item;
+
+    ItemRequest itemRequest;
+
+    LocalDateTime now;
+
+    Pageable pageable;
+
+    @BeforeEach
+    void init() {
+        now = LocalDateTime.now();
+        pageable = PageRequest.of(0, 10);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder()
+                    .name("Пользователь " + i)
+                    .email("user" + i + "@shareit.ru")
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (User requester : users) {
+            requests.add(ItemRequest.builder()
+                    .description("Нужна вещь")
+                    .requester(requester)
+                    .created(now)
+                    .build());
+        }
+        requests = itemRequestRepository.saveAll(requests);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < USERS * ITEMS_PER_USER; i++) {
+            items.add(Item.builder()
+                    .name("Вещь " + i)
+                    .description("Описание вещи " + i)
+                    .owner(users.get(i % USERS))
+                    .available(true)
+                    .request(requests.get(i % USERS))
+                    .build());
+        }
+        items = itemRepository.saveAll(items);
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item bookedItem : items) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                bookings.add(Booking.builder()
+                        .start(now.plusDays(i * 2L - BOOKINGS_PER_ITEM))
+                        .end(now.plusDays(i * 2L - BOOKINGS_PER_ITEM + 1))
+                        .item(bookedItem)
+                        .booker(users.get((int) ((bookedItem.getId() + i + 1) % USERS)))
+                        .status(Status.values()[i % Status.values().length])
+                        .build());
+            }
+            comments.add(Comment.builder()
+                    .text("Отличная вещь")
+                    .item(bookedItem)
+                    .author(users.get((int) ((bookedItem.getId() + 1) % USERS)))
+                    .created(now)
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        bookingRepository.flush();
+        commentRepository.flush();
+
+        user = users.get(0);
+        item = items.get(0);
+        itemRequest = requests.get(0);
+    }
+
+    @Test
+    void bookerQueriesUseIndexesTest() {
+        for (Set<BookingState> states : stateCombinations()) {
+            BookingFilter filter = BookingFilter.builder()
+                    .bookerId(user.getId())
+                    .states(states)
+                    .now(now)
+                    .build();
+            assertNoTableScan(() -> bookingRepository.findAllByFilter(filter, pageable));
+            assertNoTableScan(() -> bookingRepository.findAllByFilter(filter, null, 10));
+        }
+    }
+
+    @Test
+    void ownerQueriesUseIndexesTest() {
+        for (Set<BookingState> states : stateCombinations()) {
+            BookingFilter filter = BookingFilter.builder()
+                    .ownerId(user.getId())
+                    .states(states)
+                    .now(now)
+                    .build();
+            assertNoTableScan(() -> bookingRepository.findAllByFilter(filter, pageable));
+            assertNoTableScan(() -> bookingRepository.findAllByFilter(filter, null, 10));
+        }
+    }
+
+    @Test
+    void itemBookingQueriesUseIndexesTest() {
+        assertNoTableScan(() -> bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(
+                user.getId(), item.getId(), Status.APPROVED, now));
+        assertNoTableScan(() -> bookingRepository.findEndsByItemIdStartingBefore(item.getId(),
+                List.of(Status.WAITING, Status.APPROVED), now, PageRequest.of(0, 1)));
+        assertNoTableScan(() -> bookingRepository.findLastAndNextByItemIds(List.of(item.getId()), now));
+        assertNoTableScan(() -> bookingRepository.findBoundsByItemIds(List.of(item.getId()), now));
+    }
+
+    /**
+     * Поиск подстроки в названии и описании в H2 возможен только полным просмотром вещей: в PostgreSQL его
+     * обслуживают триграммные индексы из schema-postgresql.sql. Остальные таблицы, в том числе бронирования
+     * при проверке свободы вещи, должны читаться по индексам.
+     */
+    @Test
+    void itemSearchQueriesScanOnlyItemsTest() {
+        assertNoTableScan(() -> itemRepository.searchAvailableItems("вещь", pageable), ITEMS);
+        assertNoTableScan(() -> itemRepository.searchFreeItems("вещь", now, now.plusDays(1), Status.BLOCKING,
+                pageable), ITEMS);
+    }
+
+    @Test
+    void itemAndRequestQueriesUseIndexesTest() {
+        assertNoTableScan(() -> itemRepository.findByOwnerId(user.getId(), pageable));
+        assertNoTableScan(() -> itemRepository.findByRequestId(itemRequest.getId()));
+        assertNoTableScan(() -> itemRepository.findByRequestIdIn(List.of(itemRequest.getId())));
+        assertNoTableScan(() -> itemRepository.findByIdForUpdate(item.getId()));
+        assertNoTableScan(() -> commentRepository.findAllByItemId(item.getId()));
+        assertNoTableScan(() -> commentRepository.findAllByItemIdIn(List.of(item.getId())));
+        assertNoTableScan(() -> itemRequestRepository.findAllByRequesterId(user.getId()));
+    }
+
+    private void assertNoTableScan(Runnable query, String... scannedTables) {
+        CapturingStatementInspector.clear();
+        query.run();
+        List<String> statements = CapturingStatementInspector.statements();
+        assertFalse(statements.isEmpty(), "Запрос не был выполнен.");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            String unexpected = plan;
+            for (String table : scannedTables) {
+                unexpected = unexpected.replace(table + TABLE_SCAN, "");
+            }
+            assertFalse(unexpected.contains(TABLE_SCAN), () -> String.format("Полный просмотр таблицы в запросе:%n%s", plan));
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+
+            return statement;
+        }, resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+
+    private static List<Set<BookingState>> stateCombinations() {
+        List<Set<BookingState>> combinations = new ArrayList<>();
+        for (BookingState state : BookingState.values()) {
+            combinations.add(EnumSet.of(state));
+        }
+        combinations.add(EnumSet.of(BookingState.FUTURE, BookingState.WAITING));
+
+        return combinations;
+    }
+}
@@ -4,8 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -73,7 +73,7 @@ class ItemRequestRepositoryTest {
 
     @Test
     void findAllByRequesterIdIsNotTest() {
-        Page<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdIsNot(requester1.getId(),
+        Slice<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdIsNot(requester1.getId(),
                 Pageable.unpaged());
 
         assertThat(requests, hasItems());
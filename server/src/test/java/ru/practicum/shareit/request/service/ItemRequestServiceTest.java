@@ -5,9 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -21,10 +22,11 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.user.mapper.UserMapper.userToDto;
 
 @WebMvcTest(ItemRequestService.class)
@@ -137,14 +139,38 @@ class ItemRequestServiceTest {
                 .thenReturn(userToDto(requester));
         when(itemRequestRepository.findAllByRequesterId(anyLong()))
                 .thenReturn((List.of(itemRequest)));
-        when(itemRepository.findByRequestId(anyLong()))
+        when(itemRepository.findByRequestIdIn(anyCollection()))
                 .thenReturn(List.of(item));
 
-
         List<ItemRequestDtoOut> result = itemRequestService.getAll(requester.getId());
 
         assertNotNull(result);
         assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getItems().size());
+        verify(itemRepository, never()).findByRequestId(anyLong());
+    }
+
+    @Test
+    void getAllGroupsItemsByRequestTest() {
+        ItemRequest otherRequest = ItemRequest.builder()
+                .id(2L)
+                .description("Нужен зарядный кейс MagSafe.")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build();
+        when(itemRequestRepository.findAllByRequesterIdIsNot(anyLong(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(itemRequest, otherRequest)));
+        when(itemRepository.findByRequestIdIn(List.of(itemRequest.getId(), otherRequest.getId())))
+                .thenReturn(List.of(item));
+
+        List<ItemRequestDtoOut> result = itemRequestService.getAllFromOtherUser(owner.getId(), Pageable.unpaged());
+
+        assertEquals(2, result.size());
+        assertEquals(List.of(item.getId()), result.get(0).getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+        assertTrue(result.get(1).getItems().isEmpty());
+        verify(itemRepository, times(1)).findByRequestIdIn(anyCollection());
     }
 
     @Test
@@ -152,7 +178,7 @@ class ItemRequestServiceTest {
         when(userService.getById(anyLong()))
                 .thenReturn(userToDto(requester));
         when(itemRequestRepository.findAllByRequesterIdIsNot(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(itemRequest)));
+                .thenReturn(new SliceImpl<>(List.of(itemRequest)));
 
         List<ItemRequestDtoOut> result = itemRequestService.getAllFromOtherUser(requester.getId(), Pageable.unpaged());
 
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.SIMPLE)
+@Import(CacheConfig.class)
+class UserRepositoryTest {
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    User user;
+
+    Cache cache;
+
+    @BeforeEach
+    void init() {
+        user = userRepository.save(User.builder()
+                .name("Вадим Фаустов")
+                .email("vadimfaustov@gmail.com")
+                .build());
+
+        cache = cacheManager.getCache(CacheConfig.USER_EXISTS);
+        cache.clear();
+    }
+
+    @Test
+    void existsByIdCachesExistingUserTest() {
+        assertTrue(userRepository.existsById(user.getId()));
+
+        assertNotNull(cache);
+        assertEquals(Boolean.TRUE, cache.get(user.getId(), Boolean.class));
+    }
+
+    @Test
+    void existsByIdDoesNotCacheMissingUserTest() {
+        assertFalse(userRepository.existsById(user.getId() + 1000));
+
+        assertNull(cache.get(user.getId() + 1000));
+    }
+}
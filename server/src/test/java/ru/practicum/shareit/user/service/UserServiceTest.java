@@ -5,6 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -13,8 +19,11 @@ import ru.practicum.shareit.user.service.impl.UserServiceImpl;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -27,6 +36,8 @@ class UserServiceTest {
 
     UserRepository userRepository;
 
+    CacheManager cacheManager;
+
     UserDto userDto;
 
     User user;
@@ -47,7 +58,9 @@ class UserServiceTest {
 
         userRepository = mock(UserRepository.class);
 
-        userService = new UserServiceImpl(userRepository);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS, CacheConfig.USER_EXISTS);
+
+        userService = new UserServiceImpl(userRepository, cacheManager);
     }
 
     @Test
@@ -83,6 +96,29 @@ class UserServiceTest {
         assertEquals(user.getId(), result.getId());
     }
 
+    @Test
+    void updateEvictsCachesAfterCommitTest() {
+        when(userRepository.findById(user.getId()))
+                .thenReturn(Optional.of(user));
+        when(userRepository.save(any()))
+                .thenReturn(user);
+        cacheManager.getCache(CacheConfig.USERS).put(user.getId(), userDto);
+        cacheManager.getCache(CacheConfig.USER_EXISTS).put(user.getId(), true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.update(userDto, user.getId());
+
+            assertNotNull(cacheManager.getCache(CacheConfig.USERS).get(user.getId()));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get(user.getId()));
+        assertNull(cacheManager.getCache(CacheConfig.USER_EXISTS).get(user.getId()));
+    }
+
     @Test
     void updateTest() {
         User updatedUser = User.builder()
@@ -144,4 +180,21 @@ class UserServiceTest {
 
         assertEquals(0, users.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkExistsTest() {
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        assertDoesNotThrow(() -> userService.checkExists(user.getId()));
+    }
+
+    @Test
+    void checkExistsNotFoundTest() {
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
+
+        Exception ex = assertThrows(NotFoundException.class, () -> userService.checkExists(user.getId()));
+        assertEquals(String.format("Пользователь с id = %s не найден.", user.getId()), ex.getMessage());
+    }
+}